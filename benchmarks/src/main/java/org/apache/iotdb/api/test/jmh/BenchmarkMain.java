@@ -0,0 +1,53 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Title：微基准入口
+ * Describe：接受与 org.openjdk.jmh.Main 相同的命令行参数，未指定 -rf / -rff 时把结果以 JSON 写入
+ * jmh-result-iotdb-&lt;iotdb.version&gt;.json，便于按 IoTDB 客户端版本跟踪客户端侧的性能回退。
+ * iotdb.version 取打包时的 Maven 属性，可用 -Diotdb.version=... 覆盖。
+ * 运行：java -jar benchmarks/target/benchmarks.jar [JMH 参数] [基准类名正则]
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(new CommandLineOptions(args));
+        if (!Arrays.asList(args).contains("-rf") && !Arrays.asList(args).contains("-rff")) {
+            String file = "jmh-result-iotdb-" + iotdbVersion() + ".json";
+            options.resultFormat(ResultFormatType.JSON).result(file);
+            System.out.println("JMH result file: " + file);
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * 编译所用的 IoTDB 客户端版本
+     */
+    public static String iotdbVersion() throws IOException {
+        String version = System.getProperty("iotdb.version");
+        if (version != null && !version.isEmpty()) {
+            return version;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = BenchmarkMain.class.getClassLoader().getResourceAsStream("benchmark.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        version = properties.getProperty("iotdb.version", "");
+        // 未经 Maven 过滤（如在 IDE 中直接运行）时仍是占位符
+        return version.isEmpty() || version.startsWith("${") ? "unknown" : version;
+    }
+}
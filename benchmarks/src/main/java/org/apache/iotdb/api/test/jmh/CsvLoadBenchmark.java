@@ -0,0 +1,38 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.apache.iotdb.api.test.utils.CustomDataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title：CSV 用例数据解析
+ * Describe：用 CustomDataProvider.load 读取 common 模块 classpath 中的用例 CSV（含 m:/l: 自定义 map、list 字段的解析），
+ * 即 details 中每个 @DataProvider 的开销，单位为微秒/文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLoadBenchmark {
+
+    @Param({"data/tree/timeseries-single.csv", "data/tree/names-normal.csv", "data/tree/ts-structures.csv"})
+    public String file;
+
+    @Benchmark
+    public CustomDataProvider load() throws IOException {
+        return new CustomDataProvider().load(file);
+    }
+}
@@ -0,0 +1,114 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.tsfile.enums.TSDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title：insertRecords 参数构建
+ * Describe：构建一次 Session.insertRecords(deviceIds, times, measurementsList, typesList, valuesList) 的参数，
+ * DEVICES 个设备各 ROWS_PER_DEVICE 行、每行 sensors 个物理量，值取自 GenerateValues.getTabletValue。
+ * per-record 为测试用例中的写法（每行新建物理量名与类型列表），shared 为同一设备的各行共用不可变的物理量名与类型列表，
+ * 吞吐单位为行/秒，不连接服务端
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertRecordsBenchmark {
+    private static final int DEVICES = 10;
+    private static final int ROWS_PER_DEVICE = 100;
+    private static final int ROWS = DEVICES * ROWS_PER_DEVICE;
+    private static final TSDataType[] TYPES = {TSDataType.BOOLEAN, TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT,
+            TSDataType.DOUBLE, TSDataType.TEXT};
+
+    @Param({"10", "100"})
+    public int sensors;
+
+    @Param({"per-record", "shared"})
+    public String lists;
+
+    private String[] deviceIds;
+    private String[] measurementNames;
+    private TSDataType[] types;
+    private List<String> sharedMeasurements;
+    private List<TSDataType> sharedTypes;
+
+    @Setup
+    public void setup() {
+        GenerateValues.setGenerator(GenerateValues.GENERATOR_FAST);
+        deviceIds = new String[DEVICES];
+        for (int device = 0; device < DEVICES; device++) {
+            deviceIds[device] = "root.bench.d_" + device;
+        }
+        measurementNames = new String[sensors];
+        types = new TSDataType[sensors];
+        for (int i = 0; i < sensors; i++) {
+            types[i] = TYPES[i % TYPES.length];
+            measurementNames[i] = "s_" + types[i].name().toLowerCase(Locale.ROOT) + "_" + i;
+        }
+        List<String> measurements = new ArrayList<>(sensors);
+        List<TSDataType> typeList = new ArrayList<>(sensors);
+        for (int i = 0; i < sensors; i++) {
+            measurements.add(measurementNames[i]);
+            typeList.add(types[i]);
+        }
+        sharedMeasurements = Collections.unmodifiableList(measurements);
+        sharedTypes = Collections.unmodifiableList(typeList);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object[] buildArguments() {
+        boolean shared = "shared".equals(lists);
+        List<String> deviceIdList = new ArrayList<>(ROWS);
+        List<Long> times = new ArrayList<>(ROWS);
+        List<List<String>> measurementsList = new ArrayList<>(ROWS);
+        List<List<TSDataType>> typesList = new ArrayList<>(ROWS);
+        List<List<Object>> valuesList = new ArrayList<>(ROWS);
+        for (int device = 0; device < DEVICES; device++) {
+            for (int row = 0; row < ROWS_PER_DEVICE; row++) {
+                deviceIdList.add(deviceIds[device]);
+                times.add((long) row);
+                if (shared) {
+                    measurementsList.add(sharedMeasurements);
+                    typesList.add(sharedTypes);
+                } else {
+                    List<String> measurements = new ArrayList<>();
+                    List<TSDataType> typeList = new ArrayList<>();
+                    for (int i = 0; i < sensors; i++) {
+                        measurements.add(measurementNames[i]);
+                        typeList.add(types[i]);
+                    }
+                    measurementsList.add(measurements);
+                    typesList.add(typeList);
+                }
+                List<Object> values = new ArrayList<>(sensors);
+                for (int i = 0; i < sensors; i++) {
+                    values.add(GenerateValues.getTabletValue(types[i]));
+                }
+                valuesList.add(values);
+            }
+        }
+        return new Object[]{deviceIdList, times, measurementsList, typesList, valuesList};
+    }
+}
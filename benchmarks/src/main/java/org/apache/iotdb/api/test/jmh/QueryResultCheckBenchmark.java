@@ -0,0 +1,91 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.apache.iotdb.api.test.utils.QueryResultMatcher;
+import org.apache.tsfile.enums.TSDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title：查询结果校验
+ * Describe：BaseTestSuiteTreeModel.checkQueryResult 对每行结果执行的比较（QueryResultMatcher），
+ * 输入为查询返回字段的文本形式（BLOB 为 0x 开头的十六进制），每次调用校验 ROWS 行，吞吐单位为行/秒
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryResultCheckBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"INT64", "DOUBLE", "TEXT", "BLOB", "DATE"})
+    public String type;
+
+    private QueryResultMatcher matcher;
+    private String[] actualValues;
+
+    @Setup
+    public void setup() {
+        TSDataType dataType = TSDataType.valueOf(type);
+        String expect;
+        String actual;
+        switch (dataType) {
+            case INT64:
+                expect = "1234567890";
+                actual = expect;
+                break;
+            case DOUBLE:
+                expect = "1234.5678";
+                actual = expect;
+                break;
+            case BLOB:
+                expect = "物联网时序数据库";
+                StringBuilder hex = new StringBuilder("0x");
+                for (byte b : expect.getBytes(StandardCharsets.UTF_8)) {
+                    hex.append(String.format("%02x", b));
+                }
+                actual = hex.toString();
+                break;
+            case DATE:
+                expect = "2024-01-01";
+                actual = "20240101";
+                break;
+            default:
+                expect = "物联网时序数据库";
+                actual = expect;
+                break;
+        }
+        matcher = new QueryResultMatcher(dataType, expect);
+        actualValues = new String[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            // 每行一个独立的字符串，与逐行从结果集读取时一致
+            actualValues[row] = new String(actual.toCharArray());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int check() {
+        int matched = 0;
+        for (String actual : actualValues) {
+            if (matcher.matches(actual)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
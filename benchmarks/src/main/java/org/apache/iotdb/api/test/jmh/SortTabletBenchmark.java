@@ -0,0 +1,111 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title：Tablet 排序
+ * Describe：对 rows 行、INT64/DOUBLE/TEXT 三列的 Tablet 调用 Session.sortTablet（insertTablet(tablet, sorted=false) 写入前在客户端执行的排序），
+ * 时间戳顺序为 sorted（已有序；sortTablet 不检查是否有序，仍对行号索引与各列完整排序）、reversed（完全逆序）
+ * 或 disordered（DisorderedTimestamps 按 20% 比例迟到）。Session 不连接服务端。
+ * 排序会改变 Tablet，每次调用都要先拷回原始数据。拷贝放在被测方法内（@Setup(Level.Invocation) 对微秒级方法的计时误差过大），
+ * restore 单独测量拷贝本身：排序耗时 = restoreAndSort - restore。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortTabletBenchmark {
+    private static final TSDataType[] TYPES = {TSDataType.INT64, TSDataType.DOUBLE, TSDataType.TEXT};
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"sorted", "reversed", "disordered"})
+    public String order;
+
+    private final Session session = new Session.Builder().build();
+    private Tablet tablet;
+    private long[] timestamps;
+    private Object[] values;
+
+    @Setup
+    public void setup() {
+        List<IMeasurementSchema> schemaList = new ArrayList<>(TYPES.length);
+        for (int i = 0; i < TYPES.length; i++) {
+            schemaList.add(new MeasurementSchema("s_" + i, TYPES[i]));
+        }
+        long[] arrivals;
+        if ("disordered".equals(order)) {
+            arrivals = new DisorderedTimestamps(0, 1, 0.2, rows / 10, 0, 0).timestamps(0, rows, 0, Long.MAX_VALUE);
+        } else {
+            arrivals = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                arrivals[row] = "reversed".equals(order) ? rows - row : row;
+            }
+        }
+        // 生成一份原始数据，每次调用前拷回 Tablet
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(new Tablet("root.bench.d_0", schemaList, rows));
+        builder.addRows(arrivals, 0, rows);
+        for (int column = 0; column < TYPES.length; column++) {
+            GenerateValues.fillTabletColumn(TYPES[column], builder.column(column), 0, rows);
+        }
+        Tablet source = builder.build();
+        timestamps = source.getTimestamps().clone();
+        values = new Object[TYPES.length];
+        for (int column = 0; column < TYPES.length; column++) {
+            values[column] = copy(source.getValues()[column]);
+        }
+        tablet = source;
+    }
+
+    /**
+     * 只拷回原始数据，作为 restoreAndSort 的基线
+     */
+    @Benchmark
+    public Tablet restore() {
+        System.arraycopy(timestamps, 0, tablet.getTimestamps(), 0, rows);
+        for (int column = 0; column < TYPES.length; column++) {
+            System.arraycopy(values[column], 0, tablet.getValues()[column], 0, rows);
+        }
+        return tablet;
+    }
+
+    @Benchmark
+    public Tablet restoreAndSort() {
+        session.sortTablet(restore());
+        return tablet;
+    }
+
+    private static Object copy(Object column) {
+        if (column instanceof long[]) {
+            return ((long[]) column).clone();
+        } else if (column instanceof double[]) {
+            return ((double[]) column).clone();
+        }
+        return ((Object[]) column).clone();
+    }
+}
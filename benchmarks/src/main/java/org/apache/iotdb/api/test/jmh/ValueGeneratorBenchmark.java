@@ -0,0 +1,102 @@
+package org.apache.iotdb.api.test.jmh;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.FastValueGenerator;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title：数据生成器对比
+ * Describe：按 BaseTestSuiteTreeModel.insertTabletMulti 的方式填充一个包含全部 10 种数据类型、ROWS 行的 Tablet，
+ * 比较 faker（javafaker）、fast（FastValueGenerator 逐单元格 addValue）与 fast-columnar（FastValueGenerator.fillColumn
+ * 直接写列数组、无装箱）三种方式，以及 builder（insertTabletMulti 当前的 ColumnarTabletBuilder + GenerateValues.fillTabletColumn），
+ * 吞吐单位为单元格/秒
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueGeneratorBenchmark {
+    private static final int ROWS = 1000;
+    private static final TSDataType[] TYPES = {TSDataType.BOOLEAN, TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT,
+            TSDataType.DOUBLE, TSDataType.TEXT, TSDataType.STRING, TSDataType.DATE, TSDataType.TIMESTAMP, TSDataType.BLOB};
+    private static final int CELLS = ROWS * 10;
+
+    @Param({"faker", "fast", "fast-columnar", "builder"})
+    public String generator;
+
+    private List<IMeasurementSchema> schemaList;
+    private Tablet tablet;
+
+    @Setup
+    public void setup() {
+        schemaList = new ArrayList<>(TYPES.length);
+        for (TSDataType type : TYPES) {
+            schemaList.add(new MeasurementSchema("s_" + type.name().toLowerCase(Locale.ROOT), type));
+        }
+        tablet = new Tablet("root.bench.d_0", schemaList, ROWS);
+        GenerateValues.setGenerator("faker".equals(generator) ? GenerateValues.GENERATOR_FAKER : GenerateValues.GENERATOR_FAST);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public Tablet fillTablet() {
+        tablet.reset();
+        if ("builder".equals(generator)) {
+            ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
+            for (int row = 0; row < ROWS; row++) {
+                builder.addRow(row);
+            }
+            for (int column = 0; column < TYPES.length; column++) {
+                GenerateValues.fillTabletColumn(TYPES[column], builder.column(column), 0, ROWS);
+            }
+            return builder.build();
+        }
+        if ("fast-columnar".equals(generator)) {
+            for (int row = 0; row < ROWS; row++) {
+                tablet.addTimestamp(row, row);
+            }
+            Object[] values = tablet.getValues();
+            for (int column = 0; column < TYPES.length; column++) {
+                FastValueGenerator.fillColumn(TYPES[column], values[column], 0, ROWS);
+            }
+            BitMap[] bitMaps = tablet.getBitMaps();
+            if (bitMaps != null) {
+                for (BitMap bitMap : bitMaps) {
+                    bitMap.reset();
+                }
+            }
+        } else {
+            for (int row = 0; row < ROWS; row++) {
+                tablet.addTimestamp(row, row);
+                for (IMeasurementSchema schema : schemaList) {
+                    tablet.addValue(schema.getMeasurementName(), row, GenerateValues.getTabletValue(schema.getType()));
+                }
+            }
+        }
+        return tablet;
+    }
+}
@@ -1,8 +1,14 @@
 package org.apache.iotdb.api.test;
 
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
 import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.api.test.utils.PipelinedTabletWriter;
 import org.apache.iotdb.api.test.utils.PrepareConnection;
+import org.apache.iotdb.api.test.utils.QueryResultMatcher;
 import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.SeededValues;
+import org.apache.iotdb.api.test.utils.TabletPool;
 import org.apache.iotdb.isession.SessionDataSet;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
@@ -12,7 +18,6 @@ import org.apache.tsfile.read.common.RowRecord;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.write.record.Tablet;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
@@ -22,16 +27,12 @@ import org.testng.annotations.BeforeClass;
 import org.testng.log4testng.Logger;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
-import static org.apache.tsfile.encrypt.EncryptUtils.hexStringToByteArray;
-
 // TODO：里面的 SQL 语句很多用的是老版本的，之后若数据库不支持了需要全面更新
 public class BaseTestSuiteTreeModel {
     public Logger logger = Logger.getLogger(BaseTestSuiteTreeModel.class);
@@ -44,6 +45,12 @@ public class BaseTestSuiteTreeModel {
     // 自动创建元数据开关。 dynamic module. 动态模版相关
     protected boolean auto_create_schema;
     protected long baseTime;
+    // insertTabletMulti 超过该行数时分块流水线写入，0 表示始终一次写入
+    protected int tabletChunkRows;
+    // 流水线写入时已构建、待发送的块数上限
+    protected int tabletMaxInFlight;
+    // 流水线写入器，tablet_chunk_rows 大于 0 时创建；is_sessionPool 为 true 时经 sessionPool 以 tablet_senders 个线程并发发送
+    protected PipelinedTabletWriter tabletWriter;
 
     @BeforeClass
     public void beforeSuite() throws IoTDBConnectionException, ParseException, IOException {
@@ -57,12 +64,22 @@ public class BaseTestSuiteTreeModel {
         isAligned = Boolean.parseBoolean(ReadConfig.getInstance().getValue("isAligned"));
         auto_create_schema = Boolean.parseBoolean(ReadConfig.getInstance().getValue("auto_create_schema"));
         baseTime = parseDate();
+        tabletChunkRows = ReadConfig.getInstance().getInt("tablet_chunk_rows", 0);
+        tabletMaxInFlight = ReadConfig.getInstance().getInt("tablet_max_in_flight", 2);
+        if (tabletChunkRows > 0) {
+            // Session 不是线程安全的，只能单线程发送
+            int senders = sessionPool == null ? 1 : ReadConfig.getInstance().getInt("tablet_senders", 2);
+            tabletWriter = new PipelinedTabletWriter(tabletChunkRows, tabletMaxInFlight, senders);
+        }
     }
 
     @AfterClass
     public void afterSuie() throws IoTDBConnectionException, StatementExecutionException, IOException {
         cleanDatabases(verbose);
         cleanTemplates(verbose);
+        if (tabletWriter != null) {
+            tabletWriter.close();
+        }
         if (ReadConfig.getInstance().getValue("is_sessionPool").equals("false")) {
             session.close();
         } else {
@@ -172,49 +189,15 @@ public class BaseTestSuiteTreeModel {
         // 若查询返回 0 行，原先的 while 循环直接跳过、断言不执行，会造成"数据没写进去却测试通过"的静默漏判。
         int checked = 0;
         try (SessionDataSet dataSet = session.executeQueryStatement(sql)) {
-            switch (tsDataType) {
-                case INT32:
-                case INT64:
-                case FLOAT:
-                case DOUBLE:
-                case TIMESTAMP:
-                    Double expect = Double.valueOf(expectValue.toString());
-                    while (dataSet.hasNext()) {
-                        RowRecord records = dataSet.next();
-                        Double actualValue = Double.valueOf(records.getFields().get(0).toString());
-                        assert actualValue.equals(expect) : "确认结果" + dataSet.getColumnTypes().get(1) + "值: expect " + expectValue + ", actual " + records.getFields().get(0).toString();
-                        checked++;
-                    }
-                    break;
-                case BOOLEAN:
-                case TEXT:
-                case STRING:
-                    while (dataSet.hasNext()) {
-                        RowRecord records = dataSet.next();
-                        String actualValue = records.getFields().get(0).toString();
-                        assert actualValue.equals(expectValue.toString()) : "确认结果" + dataSet.getColumnTypes().get(1) + "值: expect " + expectValue + ", actual " + actualValue;
-                        checked++;
-                    }
-                    break;
-                case BLOB:
-                    while (dataSet.hasNext()) {
-                        RowRecord records = dataSet.next();
-                        String actualValue = records.getFields().get(0).toString();
-                        actualValue = actualValue.substring(2);
-                        byte[] bytes = hexStringToByteArray(actualValue);
-                        actualValue = new String(bytes);
-                        assert actualValue.equals(expectValue.toString()) : "确认结果" + dataSet.getColumnTypes().get(1) + "值: expect " + expectValue + ", actual " + actualValue;
-                        checked++;
-                    }
-                    break;
-                case DATE:
-                    while (dataSet.hasNext()) {
-                        RowRecord records = dataSet.next();
-                        String actualValue = records.getFields().get(0).toString();
-                        assert actualValue.equals(expectValue.toString().replace("-", "")) : "确认结果" + dataSet.getColumnTypes().get(1) + "值: expect " + expectValue + ", actual " + actualValue;
-                        checked++;
-                    }
-                    break;
+            // 不支持的类型不校验任何行，随后的断言会判定失败
+            if (QueryResultMatcher.supports(tsDataType)) {
+                QueryResultMatcher matcher = new QueryResultMatcher(tsDataType, expectValue);
+                while (dataSet.hasNext()) {
+                    RowRecord records = dataSet.next();
+                    String actualValue = records.getFields().get(0).toString();
+                    assert matcher.matches(actualValue) : "确认结果" + dataSet.getColumnTypes().get(1) + "值: expect " + expectValue + ", actual " + matcher.decode(actualValue);
+                    checked++;
+                }
             }
         }
         assert checked > 0 : "查询无结果，期望值未被校验（疑似数据未写入）: sql=" + sql + ", expect=" + expectValue;
@@ -377,6 +360,27 @@ public class BaseTestSuiteTreeModel {
         }
     }
 
+    /**
+     * 按到达顺序逐条写入 insertCount 个点的乱序/重复时间戳，每条记录写入后校验；重复的时间戳以后写入的值为准，
+     * 去重后的点数为 insertCount
+     */
+    public void insertRecordMulti(String device, List<String> tsNames, List<TSDataType> tsDataTypeList,
+                                  DisorderedTimestamps timestamps, int insertCount, boolean isAligned) throws IoTDBConnectionException, StatementExecutionException {
+        for (long timestamp : timestamps.timestamps(SeededValues.key(device, ""), insertCount, 0, Long.MAX_VALUE)) {
+            insertRecordMulti(device, tsNames, tsDataTypeList, timestamp, isAligned, null);
+        }
+        checkQueryResult("select count(" + tsNames.get(0) + ") from " + device + ";", TSDataType.INT32, insertCount);
+    }
+
+    /**
+     * 与 insertTabletMulti 默认时间戳相同起点（baseTime + 1 小时）与间隔（1 小时）的乱序时间戳生成器，
+     * 种子取 concurrent_value_seed
+     */
+    protected DisorderedTimestamps disorderedTimestamps(double disorderRatio, long maxLateness, double duplicateRatio) throws IOException {
+        return new DisorderedTimestamps(baseTime + 3600000, 3600000, disorderRatio, maxLateness, duplicateRatio,
+                ReadConfig.getInstance().getLong("concurrent_value_seed", 0));
+    }
+
     public void insertTabletSingle(String device, String tsName, TSDataType tsDataType, int insertCount, boolean isAligned) throws IoTDBConnectionException, StatementExecutionException {
         List<IMeasurementSchema> schemaList = new ArrayList<>();
         schemaList.add(new MeasurementSchema(tsName, tsDataType));
@@ -384,61 +388,73 @@ public class BaseTestSuiteTreeModel {
     }
 
     public void insertTabletMulti(String device, List<IMeasurementSchema> schemaList, int insertCount, boolean isAligned) throws IoTDBConnectionException, StatementExecutionException {
+        insertTabletMulti(device, schemaList, insertCount, isAligned, null);
+    }
+
+    /**
+     * 同上，timestamps 非空时按其生成的乱序/重复时间戳写入（由 disorderedTimestamps 创建，起点与间隔与默认的一致），
+     * 不为 null 时 Tablet 行数会因重复时间戳多于 insertCount，但去重后的点数仍为 insertCount
+     */
+    public void insertTabletMulti(String device, List<IMeasurementSchema> schemaList, int insertCount, boolean isAligned,
+                                  DisorderedTimestamps timestamps) throws IoTDBConnectionException, StatementExecutionException {
         // 统一使用测试类共享的 session。原先 insertCount==0 时既新建并丢弃一个连接（泄漏），
         // 又在结尾 close 共享 session 导致同类后续用例失败，属逻辑错误，已移除该特殊处理。
         Session session = this.session;
         if (verbose) {
             logger.info("insertTabletMulti device=" + device + " schema=" + schemaList.size() + " insertCount=" + insertCount);
         }
-        Tablet tablet = new Tablet(device, schemaList, insertCount);
-        int rowIndex = 0;
+        long[] arrivals = timestamps == null ? null
+                : timestamps.timestamps(SeededValues.key(device, ""), insertCount, 0, Long.MAX_VALUE);
+        int rows = arrivals == null ? insertCount : arrivals.length;
+        if (tabletChunkRows > 0 && rows > tabletChunkRows) {
+            // 分块写入：生产线程构建下一块的同时发送当前块，取值与一次写入相同
+            long[] times = arrivals;
+            PipelinedTabletWriter.TabletSink sink = sessionPool == null ? PipelinedTabletWriter.sink(session, isAligned)
+                    : PipelinedTabletWriter.sink(sessionPool, isAligned);
+            tabletWriter.write(sink, device, schemaList, rows,
+                    (builder, fromRow, count) -> {
+                        for (int row = 0; row < count; row++) {
+                            builder.addRow(times == null ? baseTime + 3600000L * (fromRow + row + 1) : times[(int) fromRow + row]);
+                        }
+                        fillTabletColumns(builder, schemaList, count);
+                    });
+        } else {
+            insertTabletOnce(session, device, schemaList, arrivals, rows, isAligned);
+        }
+        checkQueryResult("select count(" + schemaList.get(0).getMeasurementName() + ") from "
+                + device + ";", TSDataType.INT32, insertCount);
+    }
+
+    private void insertTabletOnce(Session session, String device, List<IMeasurementSchema> schemaList, long[] arrivals,
+                                  int rows, boolean isAligned) throws IoTDBConnectionException, StatementExecutionException {
+        // 按列直接填充，避免逐单元格按列名查找与装箱；开启 tablet_pool 时复用本线程的 Tablet
+        TabletPool pool = TabletPool.local();
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(pool.acquire(device, schemaList, rows));
         long timestamp = baseTime;
-        for (int row = 0; row < insertCount; row++) {
+        for (int row = 0; row < rows; row++) {
             timestamp += 3600000; //+1小时
-            tablet.addTimestamp(rowIndex, timestamp);
-            for (IMeasurementSchema iMeasurementSchema : schemaList) {
-                switch (iMeasurementSchema.getType()) {
-                    case BOOLEAN:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getBoolean());
-                        break;
-                    case INT32:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getInt());
-                        break;
-                    case INT64:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getLong(10));
-                        break;
-                    case FLOAT:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getFloat(2, 100, 200));
-                        break;
-                    case DOUBLE:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getDouble(2, 500, 1000));
-                        break;
-                    case TEXT:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getChinese());
-                        break;
-                    case STRING:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getChinese());
-                        break;
-                    case DATE:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, LocalDate.of(1970, 1, 1));
-                        break;
-                    case TIMESTAMP:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, GenerateValues.getLong(10));
-                        break;
-                    case BLOB:
-                        tablet.addValue(iMeasurementSchema.getMeasurementName(), rowIndex, new Binary(GenerateValues.getChinese(), Charset.defaultCharset()));
-                        break;
-                }
+            builder.addRow(arrivals == null ? timestamp : arrivals[row]);
+        }
+        fillTabletColumns(builder, schemaList, rows);
+        Tablet tablet = builder.build();
+        try {
+            if (isAligned) {
+                session.insertAlignedTablet(tablet);
+            } else {
+                session.insertTablet(tablet);
             }
-            rowIndex++;
+        } finally {
+            pool.release(tablet);
         }
-        if (isAligned) {
-            session.insertAlignedTablet(tablet);
-        } else {
-            session.insertTablet(tablet);
+    }
+
+    // 为 [0, rows) 行按类型填充全部列，不支持的类型写为空值
+    private static void fillTabletColumns(ColumnarTabletBuilder builder, List<IMeasurementSchema> schemaList, int rows) {
+        for (int column = 0; column < schemaList.size(); column++) {
+            if (!GenerateValues.fillTabletColumn(schemaList.get(column).getType(), builder.column(column), 0, rows)) {
+                builder.setNull(column, 0, rows);
+            }
         }
-        checkQueryResult("select count(" + schemaList.get(0).getMeasurementName() + ") from "
-                + device + ";", TSDataType.INT32, insertCount);
     }
 
     public void queryLastData(String tsPath, String expectValue, boolean verbose) throws IoTDBConnectionException, StatementExecutionException {
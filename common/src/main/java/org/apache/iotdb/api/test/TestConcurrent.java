@@ -1,131 +1,77 @@
 package org.apache.iotdb.api.test;
 
+import org.apache.iotdb.api.test.benchmark.LoadConfig;
+import org.apache.iotdb.api.test.benchmark.LoadDriver;
+import org.apache.iotdb.api.test.benchmark.SensorSchemas;
+import org.apache.iotdb.api.test.benchmark.WorkerExecutors;
+import org.apache.iotdb.api.test.utils.TabletPool;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
-import org.apache.iotdb.session.Session;
-import org.apache.tsfile.enums.TSDataType;
-import org.apache.tsfile.file.metadata.enums.CompressionType;
-import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.rpc.StatementExecutionException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import static java.lang.System.out;
-// 使用session 多线程创建元数据，每个TS类型固定。
+// 使用session 多线程创建元数据、激活模板、写入或校验数据，物理量结构由 concurrent_sensor_schema 决定。
+// 固定数量的 worker 各自持有一个长连接 session，从共享计数器领取设备序号，参数见 config.properties 中 concurrent_* 配置。
 public class TestConcurrent {
-    private static int databaseCount = 1;
-    private static int deviceCount = 1000000;
-    private static int sensorCount = 100;
-    private static boolean isAligned = false;
-    private static int clinetCount = 102;
 
-    private static List<String> hostList = new ArrayList<>(3);
+    public static void main(String[] args) throws InterruptedException, IOException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
 
-    static {
-        hostList.add("iotdb-44");
-        hostList.add("iotdb-45");
-        hostList.add("iotdb-46");
-    }
-
-
-    public static void getStruct(List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings, List<CompressionType> compressionTypes) {
-        for (int i = 0; i < sensorCount; i++) {
-            tsDataTypes.add(TSDataType.INT32);
-            tsEncodings.add(TSEncoding.PLAIN);
-            compressionTypes.add(CompressionType.UNCOMPRESSED);
+        LoadDriver driver = new LoadDriver(config);
+        out.println("sensorTypes=" + SensorSchemas.describe(driver.getTsDataTypes()));
+        // both：以相同并发度先后在平台线程与虚拟线程上运行，对比吞吐与客户端 CPU
+        List<String> modes = "both".equalsIgnoreCase(config.executor)
+                ? Arrays.asList(WorkerExecutors.PLATFORM, WorkerExecutors.VIRTUAL)
+                : Collections.singletonList(config.executor);
+        // 批量扫描：依次使用 concurrent_batch_sweep 中的每个批量大小，比较每秒创建的序列数
+        List<Integer> batchSizes = config.batchSweep.isEmpty()
+                ? Collections.singletonList(config.batchSize) : config.batchSweep;
+        // Tablet 复用对比：both 时 insert 负载先后关闭、开启 TabletPool 运行，其余负载不使用 Tablet
+        List<Boolean> pools = !driver.isInsert() ? Collections.singletonList(TabletPool.isEnabled())
+                : "both".equalsIgnoreCase(config.tabletPool) ? Arrays.asList(false, true)
+                : Collections.singletonList("on".equalsIgnoreCase(config.tabletPool));
+        if (!config.journalFile.isEmpty() && modes.size() * batchSizes.size() * pools.size() > 1) {
+            // 进度日志只对应一轮运行，多轮对比之间会清理数据库
+            throw new IllegalArgumentException("concurrent_journal_file requires a single executor, batch size and tablet pool mode");
         }
-    }
-
-    public static void main(String[] args) throws IoTDBConnectionException, InterruptedException, IOException {
-
-        long startTime = System.currentTimeMillis();
-        out.println("database="+databaseCount);
-        out.println("deviceCount="+deviceCount);
-        out.println("sensorCount="+sensorCount);
-        out.println("clinetCount="+clinetCount);
-        out.println("isAligned="+isAligned);
-
-        List<TSDataType> tsDataTypes = new ArrayList<>(sensorCount);
-        List<TSEncoding> tsEncodings = new ArrayList<>(sensorCount);
-        List<CompressionType> compressionTypes = new ArrayList<>(sensorCount);
-        getStruct(tsDataTypes, tsEncodings, compressionTypes);
-
-        ExecutorService pool = Executors.newFixedThreadPool(clinetCount);
-        for (int j = 0; j < databaseCount; j++) {
-            for (int i = 0; i < deviceCount ; i++) {
-                pool.execute(new SessionClientRunnable2(hostList.get(i%3),  j, i, sensorCount, isAligned, tsDataTypes, tsEncodings, compressionTypes));
+        List<LoadDriver.RunResult> results = new ArrayList<>(modes.size() * batchSizes.size() * pools.size());
+        for (String mode : modes) {
+            for (int batchSize : batchSizes) {
+                for (boolean pooled : pools) {
+                    TabletPool.setEnabled(pooled);
+                    String reportFile = config.reportFile;
+                    if (modes.size() > 1) {
+                        reportFile = reportFile.replaceFirst("(\\.csv)?$", "-" + mode + ".csv");
+                    }
+                    if (batchSizes.size() > 1) {
+                        reportFile = reportFile.replaceFirst("(\\.csv)?$", "-batch" + batchSize + ".csv");
+                    }
+                    if (pools.size() > 1) {
+                        reportFile = reportFile.replaceFirst("(\\.csv)?$", "-pool" + (pooled ? "on" : "off") + ".csv");
+                    }
+                    if (driver.isTemplate() && !config.resume) {
+                        // 模板激活前需重新创建数据库并挂载模板
+                        driver.cleanDatabases();
+                        driver.prepareTemplate();
+                    } else if (driver.isSchema() && !results.isEmpty()) {
+                        // 元数据不能重复创建，下一轮前先清理
+                        driver.cleanDatabases();
+                    }
+                    out.println("######## " + driver.operationName(batchSize) + " on " + mode + " threads"
+                            + (pools.size() > 1 ? ", tablet pool " + (pooled ? "on" : "off") : "") + " ########");
+                    results.add(driver.run(mode, batchSize, reportFile, config.journalFile));
+                }
             }
-
         }
-        pool.shutdown();
-        while (true) {//等待所有任务都执行结束
-            if (pool.isTerminated()) {//所有的子线程都结束了
-                System.out.printf("创建TS %d, 共耗时: %f s", databaseCount*deviceCount*sensorCount, (System.currentTimeMillis()-startTime)/1000.0);
-                break;
-            }
+        out.println(LoadDriver.RunResult.HEADER);
+        for (LoadDriver.RunResult result : results) {
+            out.println(result);
         }
     }
 }
-
-class SessionClientRunnable2 implements Runnable {
-    private Session session;
-    private int sensorCount = 0;
-    private int databaseIndex = 0;
-    private int deviceIndex = 0;
-    private boolean isAligned;
-    private List<TSDataType> tsDataTypes;
-    private List<TSEncoding> tsEncodings;
-    private List<CompressionType> compressionTypes;
-    private String host;
-    //    private String databasePrefix;
-    private String devicePrefix = "root.sg1.d_";
-    private String tsPrefix = "s_";
-
-
-    public SessionClientRunnable2(String host, int databaseIndex, int deviceIndex, int sensorCount, boolean isAligned, List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings, List<CompressionType> compressionTypes) throws IoTDBConnectionException, IOException {
-        this.host = host;
-        this.databaseIndex = databaseIndex;
-        this.deviceIndex = deviceIndex;
-        this.sensorCount = sensorCount;
-        this.isAligned = isAligned;
-        this.tsDataTypes = tsDataTypes;
-        this.tsEncodings = tsEncodings;
-        this.compressionTypes = compressionTypes;
-        session = new Session.Builder().host(host).port(6667).build();
-        session.open(false);
-        session.setFetchSize(1000);
-    }
-    @Override
-    public void run()  {
-        try {
-            List<String> paths = new ArrayList<>(this.sensorCount);
-            if (this.isAligned) {
-                for (int i = 0; i < this.sensorCount; i++) {
-                    paths.add("s_"+i);
-                }
-                long startTime = System.currentTimeMillis();
-                session.createAlignedTimeseries (devicePrefix+deviceIndex, paths, tsDataTypes, tsEncodings, compressionTypes, null);
-                long elapseTime = System.currentTimeMillis()-startTime;
-                out.println(Thread.currentThread().getName()+" "+ deviceIndex + " "+ this.host+ " cost:"+elapseTime);
-            } else {
-                for (int i = 0; i < this.sensorCount; i++) {
-                    paths.add(this.devicePrefix+deviceIndex+".s_"+i);
-                }
-                long startTime = System.currentTimeMillis();
-                session.createMultiTimeseries(paths, tsDataTypes, tsEncodings, compressionTypes, null, null, null, null);
-                long elapseTime = System.currentTimeMillis()-startTime;
-                out.println(Thread.currentThread().getName()+" "+ deviceIndex + " "+ this.host+ " cost:"+elapseTime);
-            }
-        } catch (Exception e) {
-            out.println(Thread.currentThread().getName() +" "+this.host +" "+ this.deviceIndex +" " +e);
-        } finally {
-            try {
-                session.close();
-            } catch (IoTDBConnectionException e) {
-                out.printf("[%s] %s", Thread.currentThread().getName(), e);
-            }
-        }
-    }
-}
\ No newline at end of file
@@ -0,0 +1,334 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static java.lang.System.out;
+
+/**
+ * Title：对齐与非对齐设备的读写对比压测
+ * Describe：对 layout_sensor_sweep 中的每个设备宽度（物理量个数，类型同 concurrent_sensor_* 配置），分别以对齐与非对齐两种布局
+ * 向 layout_devices 个设备写入相同的数据（每个设备 layout_rows 行，值按 concurrent_signal 由 (设备, 物理量, 时间戳) 确定，
+ * 每次 insertAlignedTablet / insertTablet 写 layout_tablet_rows 行，序列在写入前显式创建），flush 后在随机设备上各执行 layout_query_repeats 次固定的查询组合：
+ * raw（layout_range_rows 行的时间范围原始数据）、last（全部物理量的最新点）、agg（全部物理量按 10 个时间窗口的 count）
+ * 与 single（单个物理量的全量扫描）。输出写入吞吐、各类查询的延迟，配置 layout_data_dir（与服务端同机时的 DataNode 数据目录）
+ * 时另外统计该数据库 TsFile 的大小与每个点的字节数。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.AlignedLayoutBenchmark
+ */
+public class AlignedLayoutBenchmark {
+    public static final List<String> QUERIES = Arrays.asList("raw", "last", "agg", "single");
+    private static final String DATABASE = "root.layout";
+
+    private final LoadConfig config;
+    private final String executor;
+    private final int devices;
+    private final int rows;
+    private final int tabletRows;
+    private final int rangeRows;
+    private final int queryRepeats;
+    private final String dataDir;
+
+    public AlignedLayoutBenchmark(LoadConfig config, int devices, int rows, int tabletRows, int rangeRows, int queryRepeats, String dataDir) {
+        this.config = config;
+        // 布局对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.devices = Math.max(1, devices);
+        this.rows = Math.max(1, rows);
+        this.tabletRows = Math.max(1, tabletRows);
+        this.rangeRows = Math.max(1, Math.min(rangeRows, this.rows));
+        this.queryRepeats = queryRepeats;
+        this.dataDir = dataDir;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<Integer> widths = LoadConfig.parseIntList(readConfig.getValue("layout_sensor_sweep", "50,500,2000"));
+        AlignedLayoutBenchmark benchmark = new AlignedLayoutBenchmark(config, readConfig.getInt("layout_devices", 100),
+                readConfig.getInt("layout_rows", 1000), readConfig.getInt("layout_tablet_rows", 100),
+                readConfig.getInt("layout_range_rows", 100), readConfig.getInt("layout_query_repeats", 20),
+                readConfig.getValue("layout_data_dir", ""));
+
+        List<LayoutResult> results = new ArrayList<>();
+        for (int width : widths) {
+            results.add(benchmark.run(width, true));
+            results.add(benchmark.run(width, false));
+        }
+        benchmark.dropDatabase();
+
+        out.println(LayoutResult.HEADER);
+        for (LayoutResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 在全新的数据库上以指定宽度与布局写入全部设备，再执行查询组合
+     */
+    public LayoutResult run(int width, boolean aligned) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        String layout = aligned ? "aligned" : "non_aligned";
+        out.println("######## " + layout + " sensors=" + width + " devices=" + devices + " rows/device=" + rows + " ########");
+        List<TSDataType> tsDataTypes = new ArrayList<>(width);
+        List<TSEncoding> tsEncodings = new ArrayList<>(width);
+        List<CompressionType> compressionTypes = new ArrayList<>(width);
+        SensorSchemas.fill(config, width, tsDataTypes, tsEncodings, compressionTypes);
+        List<String> measurements = new ArrayList<>(width);
+        List<IMeasurementSchema> schemaList = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            measurements.add("s_" + i);
+            schemaList.add(new MeasurementSchema("s_" + i, tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+        }
+        dropDatabase();
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            session.createDatabase(DATABASE);
+            for (int device = 0; device < devices; device++) {
+                if (aligned) {
+                    session.createAlignedTimeseries(devicePath(device), measurements, tsDataTypes, tsEncodings, compressionTypes, null);
+                } else {
+                    List<String> paths = new ArrayList<>(width);
+                    for (String measurement : measurements) {
+                        paths.add(devicePath(device) + "." + measurement);
+                    }
+                    session.createMultiTimeseries(paths, tsDataTypes, tsEncodings, compressionTypes, null, null, null, null);
+                }
+            }
+        }
+
+        LatencyRecorder writeRecorder = new LatencyRecorder(aligned ? "insertAlignedTablet" : "insertTablet");
+        LongAdder failed = new LongAdder();
+        // 值只取决于 (设备, 物理量, 时间戳)，两种布局写入完全相同的数据
+        SignalValues values = new SignalValues(config.valueSeed, config.signalSpec, measurements, tsDataTypes);
+        WritePhase write = write(aligned, schemaList, values, writeRecorder, failed);
+        out.println(LatencyReporter.summary(writeRecorder.getOperation(), write.latency, write.seconds()));
+
+        Map<String, LatencyHistogram> queries = new LinkedHashMap<>();
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            // 落盘后再查询与统计文件大小，使两种布局都从 TsFile 读取
+            session.executeNonQueryStatement("flush");
+            SplittableRandom random = new SplittableRandom(config.valueSeed);
+            for (String query : QUERIES) {
+                queries.put(query, new LatencyHistogram());
+            }
+            for (int i = 0; i < queryRepeats; i++) {
+                String device = devicePath(random.nextInt(devices));
+                long from = config.baseTime + random.nextInt(rows - rangeRows + 1) * config.insertInterval;
+                long to = from + rangeRows * config.insertInterval;
+                long end = config.baseTime + rows * config.insertInterval;
+                long window = Math.max(1, rows / 10) * config.insertInterval;
+                for (String query : QUERIES) {
+                    String sql;
+                    switch (query) {
+                        case "raw":
+                            sql = "select * from " + device + " where time >= " + from + " and time < " + to;
+                            break;
+                        case "last":
+                            sql = "select last * from " + device;
+                            break;
+                        case "agg":
+                            sql = "select count(*) from " + device + " group by ([" + config.baseTime + ", " + end + "), " + window + "ms)";
+                            break;
+                        default:
+                            sql = "select " + measurements.get(random.nextInt(width)) + " from " + device;
+                            break;
+                    }
+                    long startTime = System.nanoTime();
+                    try {
+                        drain(session, sql);
+                        queries.get(query).recordValue(System.nanoTime() - startTime);
+                    } catch (IoTDBConnectionException | StatementExecutionException e) {
+                        failed.increment();
+                        out.println(sql + " failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : queries.entrySet()) {
+            out.println(LatencyReporter.summary(entry.getKey(), entry.getValue(), 0));
+        }
+        return new LayoutResult(layout, width, devices, write.rows * width, write, queries, storedBytes(), failed.sum());
+    }
+
+    // 各线程按设备序号分段，每个设备按 layout_tablet_rows 行一次写完全部行，值按时间顺序取自 values
+    private WritePhase write(boolean aligned, List<IMeasurementSchema> schemaList, SignalValues values, LatencyRecorder recorder,
+                             LongAdder failed) throws IoTDBConnectionException, InterruptedException {
+        int threads = config.clientCount;
+        List<Session> sessions = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            sessions.add(LoadWorker.openSession(config.hostList.get(i % config.hostList.size()), config));
+        }
+        LongAdder written = new LongAdder();
+        List<Callable<Object>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Session session = sessions.get(i);
+            int fromDevice = (int) ((long) devices * i / threads);
+            int toDevice = (int) ((long) devices * (i + 1) / threads);
+            workers.add(() -> {
+                // 开启 tablet_pool 时两种布局、各宽度之间复用本线程的 Tablet
+                TabletPool tablets = TabletPool.local();
+                Tablet tablet = tablets.acquire(devicePath(fromDevice), schemaList, tabletRows);
+                ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
+                SignalValues.Cursor[] cursors = new SignalValues.Cursor[schemaList.size()];
+                for (int device = fromDevice; device < toDevice; device++) {
+                    tablet.setDeviceId(devicePath(device));
+                    for (int column = 0; column < cursors.length; column++) {
+                        cursors[column] = values.cursor(devicePath(device), column);
+                    }
+                    for (int from = 0; from < rows; from += tabletRows) {
+                        int count = Math.min(tabletRows, rows - from);
+                        builder.reset();
+                        for (int row = 0; row < count; row++) {
+                            builder.addRow(config.baseTime + (from + row) * config.insertInterval);
+                        }
+                        long[] times = builder.timestamps();
+                        for (int column = 0; column < cursors.length; column++) {
+                            cursors[column].fill(builder.column(column), times, 0, count);
+                        }
+                        builder.build();
+                        long startTime = System.nanoTime();
+                        try {
+                            if (aligned) {
+                                session.insertAlignedTablet(tablet);
+                            } else {
+                                session.insertTablet(tablet);
+                            }
+                            recorder.record(System.nanoTime() - startTime);
+                            written.add(count);
+                        } catch (IoTDBConnectionException | StatementExecutionException e) {
+                            failed.increment();
+                            if (failed.sum() <= 10) {
+                                out.println(devicePath(device) + " rows [" + from + ", " + (from + count) + ") failed: " + e.getMessage());
+                            }
+                        }
+                    }
+                }
+                tablets.release(tablet);
+                return null;
+            });
+        }
+        ExecutorService pool = WorkerExecutors.create(executor, threads);
+        long startTime = System.nanoTime();
+        try {
+            pool.invokeAll(workers);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            for (Session session : sessions) {
+                session.close();
+            }
+        }
+        return new WritePhase(written.sum(), System.nanoTime() - startTime, recorder.snapshot());
+    }
+
+    private static void drain(Session session, String sql) throws IoTDBConnectionException, StatementExecutionException {
+        try (SessionDataSet dataSet = session.executeQueryStatement(sql)) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                // 只读取结果，不做校验
+            }
+        }
+    }
+
+    private static String devicePath(int device) {
+        return DATABASE + ".d_" + device;
+    }
+
+    /**
+     * layout_data_dir 下属于压测数据库的 TsFile 总字节数，未配置或目录不存在时返回 -1
+     */
+    long storedBytes() throws IOException {
+        if (dataDir == null || dataDir.trim().isEmpty() || !Files.isDirectory(Paths.get(dataDir.trim()))) {
+            return -1;
+        }
+        String marker = File.separator + DATABASE + File.separator;
+        try (Stream<Path> files = Files.walk(Paths.get(dataDir.trim()))) {
+            return files.filter(path -> path.toString().endsWith(".tsfile") && path.toString().contains(marker))
+                    .mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    /**
+     * 删除压测数据库
+     */
+    public void dropDatabase() throws IoTDBConnectionException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            session.deleteDatabase(DATABASE);
+        } catch (StatementExecutionException e) {
+            // 数据库不存在
+        }
+    }
+
+    /**
+     * 一种宽度与布局的结果，查询列为 p50/p99 毫秒
+     */
+    public static class LayoutResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-12s %8s %8s %14s %10s %12s %12s %14s %14s %14s %14s %8s",
+                "layout", "sensors", "devices", "points/s", "write_p99", "stored_MB", "bytes/point",
+                "raw_p50/p99", "last_p50/p99", "agg_p50/p99", "single_p50/p99", "failed");
+        public final String layout;
+        public final int sensors;
+        public final int devices;
+        public final long points;
+        public final WritePhase write;
+        public final Map<String, LatencyHistogram> queries;
+        // TsFile 总字节数，未统计为 -1
+        public final long storedBytes;
+        public final long failed;
+
+        public LayoutResult(String layout, int sensors, int devices, long points, WritePhase write,
+                            Map<String, LatencyHistogram> queries, long storedBytes, long failed) {
+            this.layout = layout;
+            this.sensors = sensors;
+            this.devices = devices;
+            this.points = points;
+            this.write = write;
+            this.queries = queries;
+            this.storedBytes = storedBytes;
+            this.failed = failed;
+        }
+
+        private String query(String name) {
+            LatencyHistogram histogram = queries.get(name);
+            return LatencyReporter.millis(histogram.getValueAtPercentile(50)) + "/" + LatencyReporter.millis(histogram.getValueAtPercentile(99));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-12s %8d %8d %14.1f %10s %12.2f %12.2f %14s %14s %14s %14s %8d",
+                    layout, sensors, devices, write.seconds() == 0 ? 0 : points / write.seconds(),
+                    LatencyReporter.millis(write.latency.getValueAtPercentile(99)),
+                    storedBytes < 0 ? -1 : storedBytes / 1048576.0, storedBytes < 0 || points == 0 ? -1 : (double) storedBytes / points,
+                    query("raw"), query("last"), query("agg"), query("single"), failed);
+        }
+    }
+}
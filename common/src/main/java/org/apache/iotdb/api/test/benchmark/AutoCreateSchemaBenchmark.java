@@ -0,0 +1,309 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.ITableSession;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.out;
+
+/**
+ * Title：自动创建元数据与预先创建元数据的写入开销对比
+ * Describe：把同一份数据（concurrent_* 配置的设备与物理量，每个设备 schema_cost_rounds 次请求、每次 schema_cost_rows 行）
+ * 依次以 schema_cost_modes 中的方式写入全新的设备：
+ * tree_auto（不建序列，由写入自动创建，要求服务端开启 auto_create_schema）、tree_explicit（先以 schema 负载显式建序列）、
+ * tree_template（先挂载模板并以 template 负载批量激活）、table_auto（表只有 device_id 标签列，FIELD 列由 insert 自动创建，
+ * 同 insertAutoCreateColumn）与 table_explicit（先建好全部列）。树模型以 insertTablet / insertAlignedTablet 写入，表模型以 ITableSession.insert 写入。
+ * 第一次请求（每个设备的首批数据，自动创建方式在此时创建元数据）与其余请求分开计时，输出建元数据耗时、首批与稳定阶段的吞吐和延迟，
+ * 以及从开始建元数据到全部设备写入首批数据的总耗时。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.AutoCreateSchemaBenchmark
+ */
+public class AutoCreateSchemaBenchmark {
+    public static final String TREE_AUTO = "tree_auto";
+    public static final String TREE_EXPLICIT = "tree_explicit";
+    public static final String TREE_TEMPLATE = "tree_template";
+    public static final String TABLE_AUTO = "table_auto";
+    public static final String TABLE_EXPLICIT = "table_explicit";
+    public static final List<String> MODES = Arrays.asList(TREE_AUTO, TREE_EXPLICIT, TREE_TEMPLATE, TABLE_AUTO, TABLE_EXPLICIT);
+    private static final String TABLE_DATABASE = "schema_cost";
+    private static final String TABLE_NAME = "schema_cost_t";
+
+    private final LoadConfig config;
+    private final String executor;
+    private final int rows;
+    private final int rounds;
+    private final LoadDriver schemaDriver;
+    private final LoadDriver templateDriver;
+    private final List<String> tableColumns;
+    private final List<TSDataType> tableTypes;
+    private final List<ColumnCategory> tableCategories;
+
+    public AutoCreateSchemaBenchmark(LoadConfig config, int rows, int rounds) {
+        this.config = config;
+        // 建元数据方式对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.rows = Math.max(1, rows);
+        this.rounds = Math.max(2, rounds);
+        this.schemaDriver = new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA);
+        this.templateDriver = new LoadDriver(config, LoadDriver.WORKLOAD_TEMPLATE);
+        // 表模型为 device_id 标签列加与树模型相同的物理量列
+        this.tableColumns = new ArrayList<>(config.sensorCount + 1);
+        this.tableTypes = new ArrayList<>(config.sensorCount + 1);
+        this.tableCategories = new ArrayList<>(config.sensorCount + 1);
+        tableColumns.add("device_id");
+        tableTypes.add(TSDataType.STRING);
+        tableCategories.add(ColumnCategory.TAG);
+        for (int i = 0; i < config.sensorCount; i++) {
+            tableColumns.add(schemaDriver.getMeasurements().get(i));
+            tableTypes.add(schemaDriver.getTsDataTypes().get(i));
+            tableCategories.add(ColumnCategory.FIELD);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        AutoCreateSchemaBenchmark benchmark = new AutoCreateSchemaBenchmark(config, readConfig.getInt("schema_cost_rows", 100),
+                readConfig.getInt("schema_cost_rounds", 10));
+        List<SchemaCostResult> results = new ArrayList<>();
+        for (String mode : readConfig.getValue("schema_cost_modes", String.join(",", MODES)).split(",")) {
+            if (!mode.trim().isEmpty()) {
+                results.add(benchmark.run(mode.trim()));
+            }
+        }
+        benchmark.clean();
+
+        out.println(SchemaCostResult.HEADER);
+        for (SchemaCostResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 清理后以 mode 建元数据并写入全部设备
+     */
+    public SchemaCostResult run(String mode) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("bad input schema_cost_modes: " + mode);
+        }
+        boolean table = mode.startsWith("table");
+        clean();
+        out.println("######## " + mode + " devices=" + config.totalDevices() + " rows/request=" + rows + " requests/device=" + rounds + " ########");
+        long prepareStart = System.nanoTime();
+        prepare(mode);
+        long prepareNanos = System.nanoTime() - prepareStart;
+
+        // 计时前为每个线程打开连接
+        List<Session> sessions = new ArrayList<>();
+        List<ITableSession> tableSessions = new ArrayList<>();
+        for (int i = 0; i < config.clientCount; i++) {
+            if (table) {
+                ITableSession session = LoadWorker.openTableSession(config.hostList.get(i % config.hostList.size()), config);
+                session.executeNonQueryStatement("use " + TABLE_DATABASE);
+                tableSessions.add(session);
+            } else {
+                sessions.add(LoadWorker.openSession(config.hostList.get(i % config.hostList.size()), config));
+            }
+        }
+        LongAdder failed = new LongAdder();
+        ExecutorService pool = WorkerExecutors.create(executor, config.clientCount);
+        WritePhase first;
+        WritePhase steady;
+        try {
+            first = runPhase(pool, sessions, tableSessions, 0, 1, failed);
+            steady = runPhase(pool, sessions, tableSessions, 1, rounds, failed);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            for (Session session : sessions) {
+                session.close();
+            }
+            for (ITableSession session : tableSessions) {
+                session.close();
+            }
+        }
+        out.println(LatencyReporter.summary("first", first.latency, first.seconds()));
+        out.println(LatencyReporter.summary("steady", steady.latency, steady.seconds()));
+        return new SchemaCostResult(mode, config.totalDevices(), config.sensorCount, prepareNanos, first, steady, failed.sum());
+    }
+
+    // 建元数据，自动创建方式只建表模型的数据库与只含标签列的表
+    private void prepare(String mode) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        String reportFile = config.reportFile.replaceFirst("(\\.csv)?$", "-" + mode + ".csv");
+        switch (mode) {
+            case TREE_EXPLICIT:
+                schemaDriver.run(executor, config.batchSize, reportFile);
+                break;
+            case TREE_TEMPLATE:
+                templateDriver.prepareTemplate();
+                templateDriver.run(executor, config.batchSize, reportFile);
+                break;
+            case TABLE_AUTO:
+            case TABLE_EXPLICIT:
+                try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+                    session.executeNonQueryStatement("create database " + TABLE_DATABASE);
+                    session.executeNonQueryStatement("use " + TABLE_DATABASE);
+                    StringBuilder sql = new StringBuilder("create table " + TABLE_NAME + " (device_id STRING TAG");
+                    for (int i = 1; TABLE_EXPLICIT.equals(mode) && i < tableColumns.size(); i++) {
+                        sql.append(", ").append(tableColumns.get(i)).append(' ').append(tableTypes.get(i).name()).append(" FIELD");
+                    }
+                    session.executeNonQueryStatement(sql.append(')').toString());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // 各线程按设备序号分段，每个设备写入第 [fromRound, toRound) 次请求
+    private WritePhase runPhase(ExecutorService pool, List<Session> sessions, List<ITableSession> tableSessions,
+                                int fromRound, int toRound, LongAdder failed) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder(fromRound == 0 ? "first" : "steady");
+        LongAdder written = new LongAdder();
+        long devices = config.totalDevices();
+        int threads = config.clientCount;
+        List<Callable<Object>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Session session = sessions.isEmpty() ? null : sessions.get(i);
+            ITableSession tableSession = tableSessions.isEmpty() ? null : tableSessions.get(i);
+            long fromDevice = devices * i / threads;
+            long toDevice = devices * (i + 1) / threads;
+            workers.add(() -> {
+                TabletPool tablets = TabletPool.local();
+                // 表模型每个线程整个阶段复用同一个 Tablet，树模型每个设备借还一次
+                Tablet tableTablet = tableSession == null ? null
+                        : tablets.acquire(TABLE_NAME, tableColumns, tableTypes, tableCategories, rows);
+                ColumnarTabletBuilder tableBuilder = tableTablet == null ? null : new ColumnarTabletBuilder(tableTablet);
+                try {
+                    for (int round = fromRound; round < toRound; round++) {
+                        long firstTimestamp = config.baseTime + (long) round * rows * config.insertInterval;
+                        for (long device = fromDevice; device < toDevice; device++) {
+                            try {
+                                if (tableSession != null) {
+                                    fill(tableBuilder, "d_" + device, firstTimestamp, 1);
+                                    long startTime = System.nanoTime();
+                                    tableSession.insert(tableBuilder.getTablet());
+                                    recorder.record(System.nanoTime() - startTime);
+                                } else {
+                                    Tablet tablet = tablets.acquire(config.devicePath(device), schemaDriver.getSchemaList(), rows);
+                                    try {
+                                        fill(new ColumnarTabletBuilder(tablet), null, firstTimestamp, 0);
+                                        long startTime = System.nanoTime();
+                                        if (config.isAligned) {
+                                            session.insertAlignedTablet(tablet);
+                                        } else {
+                                            session.insertTablet(tablet);
+                                        }
+                                        recorder.record(System.nanoTime() - startTime);
+                                    } finally {
+                                        tablets.release(tablet);
+                                    }
+                                }
+                                written.add(rows);
+                            } catch (IoTDBConnectionException | StatementExecutionException e) {
+                                failed.increment();
+                                if (failed.sum() <= 10) {
+                                    out.println("device " + device + " request " + round + " failed: " + e.getMessage());
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    if (tableTablet != null) {
+                        tablets.release(tableTablet);
+                    }
+                }
+                return null;
+            });
+        }
+        long startTime = System.nanoTime();
+        pool.invokeAll(workers);
+        return new WritePhase(written.sum(), System.nanoTime() - startTime, recorder.snapshot());
+    }
+
+    // 以 firstTimestamp 起的 rows 行填满 Tablet，firstValueColumn 之前为设备标签列
+    private void fill(ColumnarTabletBuilder builder, String deviceId, long firstTimestamp, int firstValueColumn) {
+        builder.reset();
+        for (int row = 0; row < rows; row++) {
+            builder.addRow(firstTimestamp + row * config.insertInterval);
+            if (deviceId != null) {
+                builder.setString(0, deviceId);
+            }
+        }
+        for (int column = firstValueColumn; column < builder.columnCount(); column++) {
+            if (!GenerateValues.fillTabletColumn(builder.type(column), builder.column(column), 0, rows)) {
+                builder.setNull(column, 0, rows);
+            }
+        }
+        builder.build();
+    }
+
+    /**
+     * 删除树模型数据库、设备模板与表模型数据库
+     */
+    public void clean() throws IoTDBConnectionException, StatementExecutionException {
+        schemaDriver.cleanDatabases();
+        templateDriver.dropTemplate();
+        try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+            session.executeNonQueryStatement("drop database if exists " + TABLE_DATABASE);
+        }
+    }
+
+    /**
+     * 一种方式的结果，first_penalty 为首批请求与稳定阶段请求的 p50 延迟之比
+     */
+    public static class SchemaCostResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-15s %10s %10s %14s %12s %12s %14s %12s %12s %14s %14s %8s",
+                "mode", "devices", "prepare_s", "first_pts/s", "first_p50", "first_p99", "steady_pts/s", "steady_p50", "steady_p99",
+                "first_penalty", "to_first_s", "failed");
+        public final String mode;
+        public final long devices;
+        public final int sensors;
+        // 写入前建元数据的耗时，自动创建方式为 0（表模型为建表耗时）
+        public final long prepareNanos;
+        public final WritePhase first;
+        public final WritePhase steady;
+        public final long failed;
+
+        public SchemaCostResult(String mode, long devices, int sensors, long prepareNanos, WritePhase first, WritePhase steady, long failed) {
+            this.mode = mode;
+            this.devices = devices;
+            this.sensors = sensors;
+            this.prepareNanos = prepareNanos;
+            this.first = first;
+            this.steady = steady;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            long firstP50 = first.latency.getValueAtPercentile(50);
+            long steadyP50 = steady.latency.getValueAtPercentile(50);
+            return String.format(Locale.ROOT, "%-15s %10d %10.3f %14.1f %12s %12s %14.1f %12s %12s %14s %14.3f %8d",
+                    mode, devices, prepareNanos / 1e9, first.rowsPerSecond() * sensors,
+                    LatencyReporter.millis(firstP50), LatencyReporter.millis(first.latency.getValueAtPercentile(99)),
+                    steady.rowsPerSecond() * sensors, LatencyReporter.millis(steadyP50),
+                    LatencyReporter.millis(steady.latency.getValueAtPercentile(99)),
+                    steadyP50 == 0 ? "-" : String.format(Locale.ROOT, "%.2fx", (double) firstP50 / steadyP50),
+                    (prepareNanos + first.elapsedNanos) / 1e9, failed);
+        }
+    }
+}
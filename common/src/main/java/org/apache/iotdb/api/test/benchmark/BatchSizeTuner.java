@@ -0,0 +1,191 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.lang.System.out;
+
+/**
+ * Title：批量大小与并发度自动调优
+ * Describe：对 tuner_api 指定的写入接口（与 IngestApiMatrix 相同的数据集与 schema 结构），从 (tuner_start_batch, tuner_start_threads)
+ * 出发做爬山搜索：每步测量当前点把每次请求行数或线程数加倍、减半后的 4 个邻居，多设备接口（insertRecords、insertTablets）
+ * 还从 tuner_start_devices 出发搜索每次请求的设备数（不超过 tuner_max_devices），邻居增加为 6 个。
+ * p99 延迟超过 tuner_latency_ceiling_ms 的点不可选，移动到吞吐最高的邻居，直到最好的邻居相对当前点的提升不足 tuner_min_gain
+ * （吞吐曲线的拐点）、没有满足上限的邻居或达到 tuner_max_steps 步。
+ * 每个点只测量一次，结果写入曲线 CSV（tuner_curve_file），推荐值写入 tuner_output_file，
+ * 其中包含可直接用于 config.properties 的 concurrent_client_count、tablet_chunk_rows（Tablet 接口）与 concurrent_batch_size（多设备接口）。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.BatchSizeTuner
+ */
+public class BatchSizeTuner {
+    private final IngestApiMatrix matrix;
+    private final LoadConfig config;
+    private final String api;
+    private final int maxBatch;
+    private final int maxDevices;
+    private final int maxThreads;
+    private final double latencyCeilingMillis;
+    private final double minGain;
+    // 已测量的点，按测量顺序保存
+    private final Map<String, IngestApiMatrix.MatrixResult> measured = new LinkedHashMap<>();
+
+    public BatchSizeTuner(LoadConfig config, String api, int maxBatch, int maxDevices, int maxThreads, double latencyCeilingMillis,
+                          double minGain) {
+        if (!IngestApiWorker.APIS.contains(api)) {
+            throw new IllegalArgumentException("bad input tuner_api: " + api);
+        }
+        this.matrix = new IngestApiMatrix(config);
+        this.config = config;
+        this.api = api;
+        // 每次请求的行数不超过每个设备的行数，insertRecord 固定为 1 行
+        this.maxBatch = IngestApiWorker.INSERT_RECORD.equals(api) ? 1 : Math.min(maxBatch, config.insertRows);
+        // 每次请求的设备数不超过设备总数，单设备接口固定为 1
+        this.maxDevices = IngestApiWorker.isMultiDevice(api) ? (int) Math.min(maxDevices, config.totalDevices()) : 1;
+        this.maxThreads = maxThreads;
+        this.latencyCeilingMillis = latencyCeilingMillis;
+        this.minGain = minGain;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        BatchSizeTuner tuner = new BatchSizeTuner(config, readConfig.getValue("tuner_api", IngestApiWorker.INSERT_TABLET),
+                readConfig.getInt("tuner_max_batch", 100000), readConfig.getInt("tuner_max_devices", 1000),
+                readConfig.getInt("tuner_max_threads", 256), readConfig.getDouble("tuner_latency_ceiling_ms", 1000),
+                readConfig.getDouble("tuner_min_gain", 0.05));
+        IngestApiMatrix.MatrixResult best = tuner.tune(readConfig.getInt("tuner_start_batch", 10),
+                readConfig.getInt("tuner_start_devices", config.batchSize), readConfig.getInt("tuner_start_threads", 1),
+                readConfig.getInt("tuner_max_steps", 20));
+        new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA).cleanDatabases();
+
+        out.println(IngestApiMatrix.MatrixResult.HEADER);
+        for (IngestApiMatrix.MatrixResult result : tuner.measured.values()) {
+            out.println(result);
+        }
+        tuner.writeCurve(readConfig.getValue("tuner_curve_file", "batch-tuning-curve.csv"), best);
+        tuner.writeRecommendation(readConfig.getValue("tuner_output_file", "batch-tuning.properties"), best);
+    }
+
+    /**
+     * 从起点开始爬山，返回推荐的点；起点本身超过延迟上限时仍从它出发，但只接受满足上限的邻居
+     */
+    public IngestApiMatrix.MatrixResult tune(int startBatch, int startDevices, int startThreads, int maxSteps)
+            throws IOException, InterruptedException, IoTDBConnectionException {
+        IngestApiMatrix.MatrixResult current = measure(clamp(startBatch, maxBatch), clamp(startDevices, maxDevices),
+                clamp(startThreads, maxThreads));
+        for (int step = 0; step < maxSteps; step++) {
+            IngestApiMatrix.MatrixResult bestNeighbor = null;
+            for (int[] neighbor : neighbors(current.rowsPerRequest, current.devicesPerRequest, current.threads)) {
+                IngestApiMatrix.MatrixResult result = measure(neighbor[0], neighbor[1], neighbor[2]);
+                if (withinCeiling(result) && (bestNeighbor == null || throughput(result) > throughput(bestNeighbor))) {
+                    bestNeighbor = result;
+                }
+            }
+            double gain = bestNeighbor == null ? 0 : throughput(bestNeighbor) / throughput(current) - 1;
+            out.printf(Locale.ROOT, "tuner step %d: at %s %.1f points/s, best neighbor %s gain %.1f%%%n",
+                    step + 1, describe(current), throughput(current), bestNeighbor == null ? "none" : describe(bestNeighbor),
+                    gain * 100);
+            if (bestNeighbor == null) {
+                // 没有满足延迟上限的邻居
+                break;
+            }
+            // 起点超过延迟上限时，任何满足上限的邻居都比它好
+            if (withinCeiling(current) && gain < minGain) {
+                break;
+            }
+            current = bestNeighbor;
+        }
+        return current;
+    }
+
+    private static String describe(IngestApiMatrix.MatrixResult result) {
+        return "rows/req=" + result.rowsPerRequest + " devices/req=" + result.devicesPerRequest + " threads=" + result.threads;
+    }
+
+    // 行数、设备数与线程数各自加倍、减半，超出范围或不变的邻居被去掉（单设备接口的设备数固定为 1）
+    private List<int[]> neighbors(int batch, int devices, int threads) {
+        List<int[]> result = new ArrayList<>(6);
+        int[][] candidates = {{batch * 2, devices, threads}, {batch / 2, devices, threads}, {batch, devices * 2, threads},
+                {batch, devices / 2, threads}, {batch, devices, threads * 2}, {batch, devices, threads / 2}};
+        for (int[] candidate : candidates) {
+            int nextBatch = clamp(candidate[0], maxBatch);
+            int nextDevices = clamp(candidate[1], maxDevices);
+            int nextThreads = clamp(candidate[2], maxThreads);
+            if (nextBatch != batch || nextDevices != devices || nextThreads != threads) {
+                result.add(new int[]{nextBatch, nextDevices, nextThreads});
+            }
+        }
+        return result;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+
+    private IngestApiMatrix.MatrixResult measure(int batch, int devices, int threads)
+            throws IOException, InterruptedException, IoTDBConnectionException {
+        String key = batch + "x" + devices + "x" + threads;
+        IngestApiMatrix.MatrixResult result = measured.get(key);
+        if (result == null) {
+            result = matrix.run(api, batch, devices, threads);
+            measured.put(key, result);
+        }
+        return result;
+    }
+
+    private boolean withinCeiling(IngestApiMatrix.MatrixResult result) {
+        return result.failed == 0 && result.latency.getValueAtPercentile(99) / 1e6 <= latencyCeilingMillis;
+    }
+
+    private static double throughput(IngestApiMatrix.MatrixResult result) {
+        return result.points / result.seconds();
+    }
+
+    /**
+     * 输出全部测量点，recommended 列标记推荐的点
+     */
+    public void writeCurve(String file, IngestApiMatrix.MatrixResult best) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("api,threads,rows_per_request,devices_per_request,points_per_s,est_bytes_per_point,p50_ms,p99_ms,failed,within_ceiling,recommended");
+            for (IngestApiMatrix.MatrixResult result : measured.values()) {
+                writer.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.1f,%s,%s,%d,%s,%s", result.api, result.threads,
+                        result.rowsPerRequest, result.devicesPerRequest, throughput(result),
+                        result.points == 0 ? 0 : (double) result.wireBytes / result.points,
+                        LatencyReporter.millis(result.latency.getValueAtPercentile(50)),
+                        LatencyReporter.millis(result.latency.getValueAtPercentile(99)), result.failed, withinCeiling(result),
+                        result == best));
+            }
+        }
+        out.println("tuning curve written to " + file);
+    }
+
+    /**
+     * 写出推荐的批量与并发设置
+     */
+    public void writeRecommendation(String file, IngestApiMatrix.MatrixResult best) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("# BatchSizeTuner recommendation for " + best.api + ", " + config.sensorCount + " sensors ("
+                    + config.sensorSchema + "), " + config.insertRows + " rows per device, p99 ceiling " + latencyCeilingMillis + " ms");
+            writer.println(String.format(Locale.ROOT, "# %.1f points/s, p99 %s ms, %d points measured", throughput(best),
+                    LatencyReporter.millis(best.latency.getValueAtPercentile(99)), measured.size()));
+            writer.println("concurrent_client_count=" + best.threads);
+            if (IngestApiWorker.isMultiDevice(api)) {
+                writer.println("concurrent_batch_size=" + best.devicesPerRequest);
+            }
+            if (IngestApiWorker.INSERT_TABLET.equals(api) || IngestApiWorker.INSERT_TABLETS.equals(api)) {
+                // insertTabletMulti 按该行数分块写入
+                writer.println("tablet_chunk_rows=" + best.rowsPerRequest);
+            }
+        }
+        out.println("recommended " + describe(best) + " written to " + file);
+    }
+}
@@ -0,0 +1,188 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.SeededValues;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.System.out;
+
+/**
+ * Title：乱序写入压测
+ * Describe：对同一批设备（concurrent_* 配置）按 disorder_ratio_sweep 中的每个乱序比例依次：清理数据库、建序列，
+ * 把每个设备的 concurrent_insert_rows 个点按到达顺序分 disorder_rounds 轮写入（每轮后 flush，使迟到的点落入乱序空间），
+ * 再以 verify 负载逐设备查询并校验全部数据，最后输出写入与查询吞吐、延迟随乱序比例变化的对比表。
+ * 迟到时间与重复比例取 concurrent_max_lateness、concurrent_duplicate_ratio。
+ * insertTablet 会在 Tablet 内按时间排序，同一轮内的迟到点只改变行序，仍写入顺序空间；只有时间戳不大于该设备此前各轮（已 flush）
+ * 最大时间戳的点才进入乱序空间。因此第 1 轮不产生乱序数据，不 flush 时也不保证产生。每个乱序比例开始前按前
+ * UNSEQUENCE_SAMPLE_DEVICES 个设备的时间戳计算并输出各轮进入乱序空间的点所占比例，结果表中 unseq_rounds 为产生乱序数据的轮数。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.DisorderBenchmark
+ */
+public class DisorderBenchmark {
+    // 估计乱序点比例时抽样的设备数
+    private static final int UNSEQUENCE_SAMPLE_DEVICES = 1000;
+
+    private final LoadConfig config;
+    private final String executor;
+    private final int rounds;
+    private final boolean flush;
+
+    public DisorderBenchmark(LoadConfig config, int rounds, boolean flush) {
+        this.config = config;
+        // 乱序对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.rounds = rounds;
+        this.flush = flush;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<Double> ratios = new ArrayList<>();
+        for (String ratio : readConfig.getValue("disorder_ratio_sweep", "0,0.05,0.2,0.5").split(",")) {
+            if (!ratio.trim().isEmpty()) {
+                ratios.add(Double.parseDouble(ratio.trim()));
+            }
+        }
+        DisorderBenchmark benchmark = new DisorderBenchmark(config, readConfig.getInt("disorder_rounds", 10),
+                readConfig.getBoolean("disorder_flush", true));
+
+        List<DisorderResult> results = new ArrayList<>(ratios.size());
+        for (double ratio : ratios) {
+            results.add(benchmark.run(ratio));
+        }
+        new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA).cleanDatabases();
+
+        out.println(DisorderResult.HEADER);
+        for (DisorderResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 以指定乱序比例写入全部设备并查询校验
+     */
+    public DisorderResult run(double disorderRatio) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadDriver schema = new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA);
+        LoadDriver insert = new LoadDriver(config, LoadDriver.WORKLOAD_INSERT);
+        LoadDriver verify = new LoadDriver(config, LoadDriver.WORKLOAD_VERIFY);
+        String suffix = "-disorder" + disorderRatio;
+        schema.cleanDatabases();
+        out.println("######## disorder=" + disorderRatio + ": " + schema.operationName(1) + " ########");
+        schema.run(executor, 1, reportFile(suffix + "-schema"));
+
+        double[] unsequence = unsequenceFractions(config.timestamps(disorderRatio));
+        int unsequenceRounds = 0;
+        StringBuilder byRound = new StringBuilder();
+        for (int round = 0; round < rounds; round++) {
+            unsequenceRounds += unsequence[round] > 0 ? 1 : 0;
+            byRound.append(round == 0 ? "" : ", ").append(round + 1).append(": ")
+                    .append(String.format(Locale.ROOT, "%.2f%%", unsequence[round] * 100));
+        }
+        out.println("disorder=" + disorderRatio + " unsequence points by round" + (flush ? "" : " (disorder_flush=false, none guaranteed)")
+                + ": " + byRound);
+
+        LatencyHistogram insertLatency = new LatencyHistogram();
+        long insertNanos = 0;
+        long insertUnits = 0;
+        long insertFailed = 0;
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            for (int round = 0; round < rounds; round++) {
+                insert.setInsertRound(config.timestamps(disorderRatio), round, rounds);
+                out.println("######## disorder=" + disorderRatio + ": " + insert.operationName(config.batchSize)
+                        + " round " + (round + 1) + "/" + rounds + " ########");
+                LoadDriver.RunResult run = insert.run(executor, config.batchSize, reportFile(suffix + "-insert" + round));
+                insertLatency.add(run.latency);
+                insertNanos += run.elapsedNanos;
+                insertUnits += run.units;
+                insertFailed += run.failed;
+                if (flush) {
+                    session.executeNonQueryStatement("flush");
+                }
+            }
+        }
+
+        out.println("######## disorder=" + disorderRatio + ": " + verify.operationName(1) + " ########");
+        LoadDriver.RunResult query = verify.run(executor, 1, reportFile(suffix + "-verify"));
+        return new DisorderResult(disorderRatio, unsequenceRounds, rounds, insertUnits, insertNanos, insertFailed, insertLatency, query);
+    }
+
+    /**
+     * 各轮写入的点中进入乱序空间（时间戳不大于此前各轮最大时间戳）的比例，按前 UNSEQUENCE_SAMPLE_DEVICES 个设备计算；
+     * 不 flush 时前几轮的数据仍在内存表中，按 0 计
+     */
+    double[] unsequenceFractions(DisorderedTimestamps timestamps) {
+        long[] unsequence = new long[rounds];
+        long[] written = new long[rounds];
+        long devices = Math.min(config.totalDevices(), UNSEQUENCE_SAMPLE_DEVICES);
+        for (long device = 0; device < devices; device++) {
+            long key = SeededValues.key(config.devicePath(device), "");
+            long flushedMax = Long.MIN_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                long roundMax = flushedMax;
+                for (long timestamp : timestamps.round(key, config.insertRows, round, rounds)) {
+                    written[round]++;
+                    if (flush && timestamp <= flushedMax) {
+                        unsequence[round]++;
+                    }
+                    roundMax = Math.max(roundMax, timestamp);
+                }
+                flushedMax = roundMax;
+            }
+        }
+        double[] fractions = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            fractions[round] = written[round] == 0 ? 0 : (double) unsequence[round] / written[round];
+        }
+        return fractions;
+    }
+
+    private String reportFile(String suffix) {
+        return config.reportFile.replaceFirst("(\\.csv)?$", suffix + ".csv");
+    }
+
+    /**
+     * 一个乱序比例的结果：写入为所有轮次之和（不含 flush 耗时），查询为 verify 负载，unsequenceRounds 为产生乱序数据的轮数
+     */
+    public static class DisorderResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-10s %12s %14s %12s %12s %10s %12s %12s %12s %10s",
+                "disorder", "unseq_rounds", "insert_pts/s", "ins_p50_ms", "ins_p99_ms", "ins_fail", "query_dev/s", "qry_p50_ms", "qry_p99_ms", "qry_fail");
+        public final double disorderRatio;
+        public final int unsequenceRounds;
+        public final int rounds;
+        public final long insertUnits;
+        public final long insertNanos;
+        public final long insertFailed;
+        public final LatencyHistogram insertLatency;
+        public final LoadDriver.RunResult query;
+
+        public DisorderResult(double disorderRatio, int unsequenceRounds, int rounds, long insertUnits, long insertNanos,
+                              long insertFailed, LatencyHistogram insertLatency, LoadDriver.RunResult query) {
+            this.disorderRatio = disorderRatio;
+            this.unsequenceRounds = unsequenceRounds;
+            this.rounds = rounds;
+            this.insertUnits = insertUnits;
+            this.insertNanos = insertNanos;
+            this.insertFailed = insertFailed;
+            this.insertLatency = insertLatency;
+            this.query = query;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %12s %14.1f %12s %12s %10d %12.1f %12s %12s %10d",
+                    disorderRatio, unsequenceRounds + "/" + rounds, insertUnits / (insertNanos / 1e9), LatencyReporter.millis(insertLatency.getValueAtPercentile(50)),
+                    LatencyReporter.millis(insertLatency.getValueAtPercentile(99)), insertFailed, query.devices / query.seconds(),
+                    LatencyReporter.millis(query.latency.getValueAtPercentile(50)),
+                    LatencyReporter.millis(query.latency.getValueAtPercentile(99)), query.failed);
+        }
+    }
+}
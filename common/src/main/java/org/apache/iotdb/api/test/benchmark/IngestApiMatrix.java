@@ -0,0 +1,182 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.out;
+
+/**
+ * Title：写入接口吞吐矩阵
+ * Describe：把同一份确定的数据集（concurrent_* 配置的设备、物理量与 concurrent_insert_rows 行，值由 concurrent_value_seed
+ * 与 concurrent_signal 确定）依次通过 api_matrix_apis 中的每个写入接口写入，并遍历 api_matrix_batch_sweep（每次请求每个设备的行数）
+ * 与 api_matrix_thread_sweep（并发线程数）。每个组合前清理数据库并重新建序列，使各接口写入相同的初始状态。
+ * insertRecord 每次只写一行，只以批量 1 运行；insertRecords 与 insertTablets 每次请求包含 concurrent_batch_size 个设备。
+ * 最后输出数据点/秒、估算的请求字节数（见 WireSize）与 p99 延迟的矩阵，用于为不同的数据源选择写入接口。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.IngestApiMatrix
+ */
+public class IngestApiMatrix {
+    private final LoadConfig config;
+    private final String executor;
+    private final List<IMeasurementSchema> schemaList;
+
+    public IngestApiMatrix(LoadConfig config) {
+        this.config = config;
+        // 接口对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        List<TSDataType> tsDataTypes = new ArrayList<>(config.sensorCount);
+        List<TSEncoding> tsEncodings = new ArrayList<>(config.sensorCount);
+        List<CompressionType> compressionTypes = new ArrayList<>(config.sensorCount);
+        SensorSchemas.fill(config, tsDataTypes, tsEncodings, compressionTypes);
+        this.schemaList = new ArrayList<>(config.sensorCount);
+        for (int i = 0; i < config.sensorCount; i++) {
+            schemaList.add(new MeasurementSchema("s_" + i, tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<String> apis = new ArrayList<>();
+        for (String api : readConfig.getValue("api_matrix_apis", String.join(",", IngestApiWorker.APIS)).split(",")) {
+            if (!api.trim().isEmpty()) {
+                apis.add(api.trim());
+            }
+        }
+        List<Integer> batchSizes = LoadConfig.parseIntList(readConfig.getValue("api_matrix_batch_sweep", "1,10,100"));
+        List<Integer> threadCounts = LoadConfig.parseIntList(readConfig.getValue("api_matrix_thread_sweep", "1,8,32"));
+        IngestApiMatrix matrix = new IngestApiMatrix(config);
+
+        List<MatrixResult> results = new ArrayList<>();
+        for (String api : apis) {
+            for (int threads : threadCounts) {
+                for (int batchSize : batchSizes) {
+                    if (IngestApiWorker.INSERT_RECORD.equals(api) && batchSize != batchSizes.get(0)) {
+                        // insertRecord 不受批量影响，每个线程数只运行一次
+                        continue;
+                    }
+                    results.add(matrix.run(api, IngestApiWorker.INSERT_RECORD.equals(api) ? 1 : batchSize, threads));
+                }
+            }
+        }
+        new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA).cleanDatabases();
+
+        out.println(MatrixResult.HEADER);
+        for (MatrixResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 在全新的序列上以 threads 个线程、每次请求每个设备 rowsPerRequest 行，通过 api 写入全部数据；
+     * 多设备接口每次请求包含 concurrent_batch_size 个设备
+     */
+    public MatrixResult run(String api, int rowsPerRequest, int threads) throws IOException, InterruptedException, IoTDBConnectionException {
+        return run(api, rowsPerRequest, config.batchSize, threads);
+    }
+
+    /**
+     * 同上，多设备接口每次请求包含 devicesPerRequest 个设备，单设备接口忽略该参数
+     */
+    public MatrixResult run(String api, int rowsPerRequest, int devicesPerRequest, int threads)
+            throws IOException, InterruptedException, IoTDBConnectionException {
+        String operation = IngestApiWorker.operationName(api, config.isAligned);
+        if (!IngestApiWorker.isMultiDevice(api)) {
+            devicesPerRequest = 1;
+        }
+        String point = "rows/request=" + rowsPerRequest + (IngestApiWorker.isMultiDevice(api) ? " devices/request=" + devicesPerRequest : "")
+                + " threads=" + threads;
+        String suffix = "-" + operation + "-t" + threads + "-b" + rowsPerRequest
+                + (IngestApiWorker.isMultiDevice(api) && devicesPerRequest != config.batchSize ? "-d" + devicesPerRequest : "");
+        LoadDriver schema = new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA);
+        schema.cleanDatabases();
+        out.println("######## " + operation + " " + point + ": " + schema.operationName(1) + " ########");
+        schema.run(executor, 1, reportFile(suffix + "-schema"));
+
+        out.println("######## " + operation + " " + point + " ########");
+        LatencyRecorder recorder = new LatencyRecorder(operation);
+        LoadContext context = new LoadContext(config, devicesPerRequest, recorder);
+        LongAdder wireBytes = new LongAdder();
+        LongAdder requests = new LongAdder();
+        LongAdder rowsSent = new LongAdder();
+        List<Callable<Object>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(Executors.callable(new IngestApiWorker(context, api, rowsPerRequest, schemaList, wireBytes, requests, rowsSent)));
+        }
+        ExecutorService pool = WorkerExecutors.create(executor, threads);
+        long startTime = System.nanoTime();
+        pool.invokeAll(workers);
+        long elapsedNanos = System.nanoTime() - startTime;
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        out.println(LatencyReporter.summary(operation, recorder.snapshot(), elapsedNanos / 1e9));
+        // 按实际发送的行数计算，重复时间戳的行也计入
+        long points = rowsSent.sum() * config.sensorCount;
+        return new MatrixResult(operation, threads, rowsPerRequest, devicesPerRequest, points, context.failed.get(),
+                requests.sum(), wireBytes.sum(), elapsedNanos, recorder.snapshot());
+    }
+
+    private String reportFile(String suffix) {
+        return config.reportFile.replaceFirst("(\\.csv)?$", suffix + ".csv");
+    }
+
+    /**
+     * 矩阵中的一格：写入的数据点、估算字节数与请求延迟
+     */
+    public static class MatrixResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-36s %8s %9s %8s %14s %12s %12s %12s %12s %8s",
+                "api", "threads", "rows/req", "dev/req", "points/s", "est_MB/s", "bytes/point", "p50_ms", "p99_ms", "failed");
+        public final String api;
+        public final int threads;
+        public final int rowsPerRequest;
+        public final int devicesPerRequest;
+        public final long points;
+        // 失败的设备数
+        public final long failed;
+        public final long requests;
+        public final long wireBytes;
+        public final long elapsedNanos;
+        public final LatencyHistogram latency;
+
+        public MatrixResult(String api, int threads, int rowsPerRequest, int devicesPerRequest, long points, long failed,
+                            long requests, long wireBytes, long elapsedNanos, LatencyHistogram latency) {
+            this.api = api;
+            this.threads = threads;
+            this.rowsPerRequest = rowsPerRequest;
+            this.devicesPerRequest = devicesPerRequest;
+            this.points = points;
+            this.failed = failed;
+            this.requests = requests;
+            this.wireBytes = wireBytes;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public double seconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-36s %8d %9d %8d %14.1f %12.2f %12.1f %12s %12s %8d",
+                    api, threads, rowsPerRequest, devicesPerRequest, points / seconds(), wireBytes / 1048576.0 / seconds(),
+                    points == 0 ? 0 : (double) wireBytes / points, LatencyReporter.millis(latency.getValueAtPercentile(50)),
+                    LatencyReporter.millis(latency.getValueAtPercentile(99)), failed);
+        }
+    }
+}
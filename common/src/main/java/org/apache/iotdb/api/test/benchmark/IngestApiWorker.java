@@ -0,0 +1,325 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.SeededValues;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Title：指定写入接口的 worker
+ * Describe：为领取到的每个设备生成与 insert 负载相同的数据（concurrent_insert_rows 行，值由 concurrent_value_seed 与 concurrent_signal 确定），
+ * 再按 rowsPerRequest 行一次请求，通过指定的写入接口发送：insertRecord 每次一行；insertRecordsOfOneDevice、
+ * insertStringRecordsOfOneDevice、insertTablet 每次一个设备的 rowsPerRequest 行；insertRecords、insertTablets 每次包含
+ * 领取到的这批设备（concurrent_batch_size 个）各 rowsPerRequest 行。isAligned=true 时使用对应的 Aligned 接口。
+ * concurrent_disorder_ratio 或 concurrent_duplicate_ratio 大于 0 时，各接口按 DisorderedTimestamps 的到达顺序（与一轮写完的 insert 负载相同）
+ * 发送迟到与重复的点，行数因重复点多于 concurrent_insert_rows。
+ * 每次请求单独记录延迟，并按 WireSize 累计估算的请求字节数
+ */
+public class IngestApiWorker extends LoadWorker {
+    public static final String INSERT_RECORD = "insertRecord";
+    public static final String INSERT_RECORDS = "insertRecords";
+    public static final String INSERT_RECORDS_OF_ONE_DEVICE = "insertRecordsOfOneDevice";
+    public static final String INSERT_STRING_RECORDS_OF_ONE_DEVICE = "insertStringRecordsOfOneDevice";
+    public static final String INSERT_TABLET = "insertTablet";
+    public static final String INSERT_TABLETS = "insertTablets";
+    public static final List<String> APIS = Collections.unmodifiableList(Arrays.asList(INSERT_RECORD, INSERT_RECORDS,
+            INSERT_RECORDS_OF_ONE_DEVICE, INSERT_STRING_RECORDS_OF_ONE_DEVICE, INSERT_TABLET, INSERT_TABLETS));
+
+    private final String api;
+    private final int rowsPerRequest;
+    private final List<IMeasurementSchema> schemaList;
+    private final List<String> measurements;
+    private final List<TSDataType> tsDataTypes;
+    private final SignalValues values;
+    private final DisorderedTimestamps timestamps;
+    private final LongAdder wireBytes;
+    private final LongAdder requests;
+    // 成功发送的行数，含重复时间戳的行
+    private final LongAdder rowsSent;
+
+    public IngestApiWorker(LoadContext context, String api, int rowsPerRequest, List<IMeasurementSchema> schemaList,
+                           LongAdder wireBytes, LongAdder requests, LongAdder rowsSent) {
+        super(context);
+        if (!APIS.contains(api)) {
+            throw new IllegalArgumentException("bad input ingestion api: " + api);
+        }
+        this.api = api;
+        this.rowsPerRequest = INSERT_RECORD.equals(api) ? 1 : rowsPerRequest;
+        this.schemaList = schemaList;
+        List<String> names = new ArrayList<>(schemaList.size());
+        List<TSDataType> types = new ArrayList<>(schemaList.size());
+        for (IMeasurementSchema schema : schemaList) {
+            names.add(schema.getMeasurementName());
+            types.add(schema.getType());
+        }
+        // 各行共用同一组不可变的物理量名与类型列表
+        this.measurements = Collections.unmodifiableList(names);
+        this.tsDataTypes = Collections.unmodifiableList(types);
+        this.values = new SignalValues(config.valueSeed, config.signalSpec, measurements, tsDataTypes);
+        this.timestamps = config.timestamps(config.disorderRatio);
+        if (!timestamps.isSequential() && !values.isRandom()) {
+            throw new IllegalArgumentException("disordered insert requires concurrent_signal to be random");
+        }
+        this.wireBytes = wireBytes;
+        this.requests = requests;
+        this.rowsSent = rowsSent;
+    }
+
+    /**
+     * 是否在一次请求中包含多个设备，此时每次请求包含 concurrent_batch_size 个设备
+     */
+    public static boolean isMultiDevice(String api) {
+        return INSERT_RECORDS.equals(api) || INSERT_TABLETS.equals(api);
+    }
+
+    public static String operationName(String api, boolean isAligned) {
+        return isAligned ? "insertAligned" + api.substring("insert".length()) : api;
+    }
+
+    @Override
+    protected void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException {
+        TabletPool pool = TabletPool.local();
+        List<Tablet> sources = new ArrayList<>(isMultiDevice(api) ? devices.size() : 1);
+        try {
+            if (isMultiDevice(api)) {
+                for (String device : devices) {
+                    sources.add(generate(pool, device));
+                }
+                // 有重复点时各设备行数不同，每次请求取各设备的同一段行
+                int rows = 0;
+                for (Tablet source : sources) {
+                    rows = Math.max(rows, source.getRowSize());
+                }
+                for (int from = 0; from < rows; from += rowsPerRequest) {
+                    send(session, sources, from, from + rowsPerRequest);
+                }
+            } else {
+                for (String device : devices) {
+                    release(pool, sources);
+                    sources.add(generate(pool, device));
+                    int rows = sources.get(0).getRowSize();
+                    for (int from = 0; from < rows; from += rowsPerRequest) {
+                        send(session, sources, from, from + rowsPerRequest);
+                    }
+                }
+            }
+        } finally {
+            release(pool, sources);
+        }
+    }
+
+    private static void release(TabletPool pool, List<Tablet> tablets) {
+        for (Tablet tablet : tablets) {
+            pool.release(tablet);
+        }
+        tablets.clear();
+    }
+
+    // 生成设备的全部行，与 insert 负载一轮写完时的时间戳（按到达顺序）和值一致；开启 tablet_pool 时复用本线程的 Tablet，
+    // 有重复点时按最多的行数借出，使各设备共用同一结构
+    private Tablet generate(TabletPool pool, String device) {
+        ColumnarTabletBuilder builder;
+        if (timestamps.isSequential()) {
+            builder = new ColumnarTabletBuilder(pool.acquire(device, schemaList, config.insertRows));
+            for (int row = 0; row < config.insertRows; row++) {
+                builder.addRow(config.baseTime + row * config.insertInterval);
+            }
+        } else {
+            long[] arrivals = timestamps.timestamps(SeededValues.key(device, ""), config.insertRows, 0, Long.MAX_VALUE);
+            builder = new ColumnarTabletBuilder(pool.acquire(device, schemaList, (int) timestamps.maxTimestamps(config.insertRows)));
+            builder.addRows(arrivals, 0, arrivals.length);
+        }
+        int rows = builder.rowCount();
+        long[] times = builder.timestamps();
+        for (int i = 0; i < schemaList.size(); i++) {
+            values.cursor(device, i).fill(builder.column(i), times, 0, rows);
+        }
+        return builder.build();
+    }
+
+    // 以 api 发送 sources 中各设备的 [from, to) 行（超出设备行数的部分忽略），请求构建完成后开始计时
+    private void send(Session session, List<Tablet> sources, int from, int to) throws IoTDBConnectionException, StatementExecutionException {
+        boolean aligned = config.isAligned;
+        long bytes;
+        long startTime;
+        int sent;
+        switch (api) {
+            case INSERT_RECORD: {
+                Tablet source = sources.get(0);
+                List<Object> row = row(source, from);
+                bytes = WireSize.record(source.getDeviceId(), measurements, tsDataTypes, row);
+                sent = 1;
+                startTime = System.nanoTime();
+                if (aligned) {
+                    session.insertAlignedRecord(source.getDeviceId(), source.getTimestamps()[from], measurements, tsDataTypes, row);
+                } else {
+                    session.insertRecord(source.getDeviceId(), source.getTimestamps()[from], measurements, tsDataTypes, row);
+                }
+                break;
+            }
+            case INSERT_RECORDS:
+            case INSERT_RECORDS_OF_ONE_DEVICE: {
+                int rows = (to - from) * sources.size();
+                List<String> deviceIds = new ArrayList<>(rows);
+                List<Long> times = new ArrayList<>(rows);
+                List<List<String>> measurementsList = new ArrayList<>(rows);
+                List<List<TSDataType>> typesList = new ArrayList<>(rows);
+                List<List<Object>> valuesList = new ArrayList<>(rows);
+                for (Tablet source : sources) {
+                    for (int row = from; row < end(source, to); row++) {
+                        deviceIds.add(source.getDeviceId());
+                        times.add(source.getTimestamps()[row]);
+                        measurementsList.add(measurements);
+                        typesList.add(tsDataTypes);
+                        valuesList.add(row(source, row));
+                    }
+                }
+                boolean oneDevice = INSERT_RECORDS_OF_ONE_DEVICE.equals(api);
+                bytes = WireSize.records(deviceIds, oneDevice, measurementsList, typesList, valuesList);
+                sent = deviceIds.size();
+                startTime = System.nanoTime();
+                if (oneDevice && aligned) {
+                    session.insertAlignedRecordsOfOneDevice(deviceIds.get(0), times, measurementsList, typesList, valuesList);
+                } else if (oneDevice) {
+                    session.insertRecordsOfOneDevice(deviceIds.get(0), times, measurementsList, typesList, valuesList);
+                } else if (aligned) {
+                    session.insertAlignedRecords(deviceIds, times, measurementsList, typesList, valuesList);
+                } else {
+                    session.insertRecords(deviceIds, times, measurementsList, typesList, valuesList);
+                }
+                break;
+            }
+            case INSERT_STRING_RECORDS_OF_ONE_DEVICE: {
+                Tablet source = sources.get(0);
+                int end = end(source, to);
+                List<Long> times = new ArrayList<>(end - from);
+                List<List<String>> measurementsList = new ArrayList<>(end - from);
+                List<List<String>> valuesList = new ArrayList<>(end - from);
+                for (int row = from; row < end; row++) {
+                    times.add(source.getTimestamps()[row]);
+                    measurementsList.add(measurements);
+                    List<Object> typed = row(source, row);
+                    List<String> strings = new ArrayList<>(typed.size());
+                    for (Object value : typed) {
+                        strings.add(value instanceof Binary ? new String(((Binary) value).getValues(), StandardCharsets.UTF_8)
+                                : value.toString());
+                    }
+                    valuesList.add(strings);
+                }
+                bytes = WireSize.stringRecords(source.getDeviceId(), measurementsList, valuesList);
+                sent = end - from;
+                startTime = System.nanoTime();
+                if (aligned) {
+                    session.insertAlignedStringRecordsOfOneDevice(source.getDeviceId(), times, measurementsList, valuesList);
+                } else {
+                    session.insertStringRecordsOfOneDevice(source.getDeviceId(), times, measurementsList, valuesList);
+                }
+                break;
+            }
+            default: {
+                TabletPool pool = TabletPool.local();
+                Map<String, Tablet> tablets = new HashMap<>(sources.size() * 2);
+                bytes = 0;
+                sent = 0;
+                try {
+                    for (Tablet source : sources) {
+                        if (from >= source.getRowSize()) {
+                            continue;
+                        }
+                        Tablet tablet = slice(pool, source, from, end(source, to));
+                        tablets.put(source.getDeviceId(), tablet);
+                        bytes += WireSize.tablet(tablet, measurements, tsDataTypes);
+                        sent += tablet.getRowSize();
+                    }
+                    startTime = System.nanoTime();
+                    if (INSERT_TABLET.equals(api)) {
+                        Tablet tablet = tablets.values().iterator().next();
+                        if (aligned) {
+                            session.insertAlignedTablet(tablet);
+                        } else {
+                            session.insertTablet(tablet);
+                        }
+                    } else if (aligned) {
+                        session.insertAlignedTablets(tablets);
+                    } else {
+                        session.insertTablets(tablets);
+                    }
+                } finally {
+                    for (Tablet tablet : tablets.values()) {
+                        pool.release(tablet);
+                    }
+                }
+                break;
+            }
+        }
+        recordLatency(startTime);
+        wireBytes.add(bytes);
+        requests.increment();
+        rowsSent.add(sent);
+    }
+
+    private static int end(Tablet source, int to) {
+        return Math.min(to, source.getRowSize());
+    }
+
+    // 第 row 行各列的值（装箱），TEXT/STRING/BLOB 为 Binary
+    private List<Object> row(Tablet source, int row) {
+        Object[] columns = source.getValues();
+        List<Object> result = new ArrayList<>(columns.length);
+        for (int column = 0; column < columns.length; column++) {
+            switch (tsDataTypes.get(column)) {
+                case BOOLEAN:
+                    result.add(((boolean[]) columns[column])[row]);
+                    break;
+                case INT32:
+                    result.add(((int[]) columns[column])[row]);
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    result.add(((long[]) columns[column])[row]);
+                    break;
+                case FLOAT:
+                    result.add(((float[]) columns[column])[row]);
+                    break;
+                case DOUBLE:
+                    result.add(((double[]) columns[column])[row]);
+                    break;
+                case DATE:
+                    result.add(((LocalDate[]) columns[column])[row]);
+                    break;
+                default:
+                    result.add(((Binary[]) columns[column])[row]);
+                    break;
+            }
+        }
+        return result;
+    }
+
+    // 把 source 的 [from, to) 行拷贝到一个 Tablet，开启 tablet_pool 时复用本线程的 Tablet
+    private Tablet slice(TabletPool pool, Tablet source, int from, int to) {
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(pool.acquire(source.getDeviceId(), schemaList, rowsPerRequest));
+        builder.addRows(source.getTimestamps(), from, to);
+        for (int column = 0; column < schemaList.size(); column++) {
+            System.arraycopy(source.getValues()[column], from, builder.column(column), 0, to - from);
+        }
+        return builder.build();
+    }
+}
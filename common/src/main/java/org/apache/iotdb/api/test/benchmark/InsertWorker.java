@@ -0,0 +1,126 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.SeededValues;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Title：数据写入 worker
+ * Describe：为领取到的每个设备构建一个 concurrent_insert_rows 行的 Tablet，单设备时调用 insertTablet / insertAlignedTablet，
+ * 多设备批量时调用 insertTablets / insertAlignedTablets 一次写入。
+ * 写入的值由 concurrent_value_seed 与 concurrent_signal 确定，同一配置下可通过 verify 负载校验。
+ * 时间戳由 DisorderedTimestamps 生成，可包含迟到与重复的点；分轮写入时每轮只写到达顺序中属于该轮的点。
+ * 设备序列需已存在（先运行 schema 负载）或开启服务端自动创建元数据。
+ */
+public class InsertWorker extends LoadWorker {
+    private final List<IMeasurementSchema> schemaList;
+    private final SignalValues values;
+    private final DisorderedTimestamps timestamps;
+    private final int round;
+    private final int rounds;
+
+    public InsertWorker(LoadContext context, List<IMeasurementSchema> schemaList, DisorderedTimestamps timestamps, int round, int rounds) {
+        super(context);
+        this.schemaList = schemaList;
+        this.timestamps = timestamps;
+        this.round = round;
+        this.rounds = rounds;
+        List<String> measurements = new ArrayList<>(schemaList.size());
+        List<TSDataType> tsDataTypes = new ArrayList<>(schemaList.size());
+        for (IMeasurementSchema schema : schemaList) {
+            measurements.add(schema.getMeasurementName());
+            tsDataTypes.add(schema.getType());
+        }
+        this.values = new SignalValues(config.valueSeed, config.signalSpec, measurements, tsDataTypes);
+    }
+
+    @Override
+    protected void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException {
+        TabletPool pool = TabletPool.local();
+        if (devices.size() == 1) {
+            Tablet tablet = buildTablet(pool, devices.get(0));
+            try {
+                if (tablet.getRowSize() == 0) {
+                    // 分轮写入时该设备在本轮没有到达的点
+                    return;
+                }
+                long startTime = System.nanoTime();
+                if (config.isAligned) {
+                    session.insertAlignedTablet(tablet);
+                } else {
+                    session.insertTablet(tablet);
+                }
+                recordLatency(startTime);
+            } finally {
+                pool.release(tablet);
+            }
+        } else {
+            Map<String, Tablet> tablets = new HashMap<>(devices.size() * 2);
+            try {
+                for (String device : devices) {
+                    Tablet tablet = buildTablet(pool, device);
+                    if (tablet.getRowSize() > 0) {
+                        tablets.put(device, tablet);
+                    } else {
+                        pool.release(tablet);
+                    }
+                }
+                if (tablets.isEmpty()) {
+                    return;
+                }
+                long startTime = System.nanoTime();
+                if (config.isAligned) {
+                    session.insertAlignedTablets(tablets);
+                } else {
+                    session.insertTablets(tablets);
+                }
+                recordLatency(startTime);
+            } finally {
+                for (Tablet tablet : tablets.values()) {
+                    pool.release(tablet);
+                }
+            }
+        }
+    }
+
+    // 值由 SignalValues 按 (设备, 物理量) 从第一行顺序生成，可用 verify 负载回读校验；开启 tablet_pool 时复用本线程的 Tablet
+    private Tablet buildTablet(TabletPool pool, String device) {
+        ColumnarTabletBuilder builder;
+        if (timestamps.isSequential() && rounds == 1) {
+            builder = new ColumnarTabletBuilder(pool.acquire(device, schemaList, config.insertRows));
+            for (int row = 0; row < config.insertRows; row++) {
+                builder.addRow(config.baseTime + row * config.insertInterval);
+            }
+        } else {
+            // 同一设备的所有物理量共用一组时间戳
+            long[] arrivals = timestamps.round(SeededValues.key(device, ""), config.insertRows, round, rounds);
+            // 行数通常不超过 concurrent_insert_rows，按其分配以便复用
+            builder = new ColumnarTabletBuilder(pool.acquire(device, schemaList, Math.max(config.insertRows, arrivals.length)));
+            builder.addRows(arrivals, 0, arrivals.length);
+        }
+        int rowCount = builder.rowCount();
+        long[] times = builder.timestamps();
+        for (int i = 0; i < schemaList.size(); i++) {
+            values.cursor(device, i).fill(builder.column(i), times, 0, rowCount);
+        }
+        return builder.build();
+    }
+
+    public static String operationName(boolean isAligned, int batchSize) {
+        String name = isAligned ? "insertAlignedTablet" : "insertTablet";
+        return batchSize > 1 ? name + "s[x" + batchSize + "]" : name;
+    }
+}
@@ -0,0 +1,74 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Title：客户端 JVM 资源统计
+ * Describe：通过 JMX 读取压测客户端自身的资源消耗（CPU、堆内存分配量与 GC 次数/耗时），用于对比不同执行方式的客户端开销
+ */
+public class JvmStats {
+
+    /**
+     * 当前进程累计 CPU 时间（纳秒），JVM 不支持时返回 -1
+     */
+    public static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * 累计在堆上分配的字节数，JVM 不支持时返回 -1。JDK 21+ 使用 getTotalThreadAllocatedBytes（含已结束的线程），
+     * 更早的版本只能统计存活线程，因此应在工作线程结束前采样
+     */
+    public static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        try {
+            Method total = com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+            return (long) total.invoke(sunThreads);
+        } catch (ReflectiveOperationException e) {
+            long sum = 0;
+            for (long allocated : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                if (allocated > 0) {
+                    sum += allocated;
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * 所有收集器累计的 GC 次数
+     */
+    public static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * 所有收集器累计的 GC 耗时（毫秒）
+     */
+    public static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,119 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Title：延迟直方图
+ * Describe：HDR 风格的对数-线性分桶直方图（单位纳秒，相对精度约 1.5%），内存占用固定，记录为 O(1)。
+ * 记录端为单线程写（由 LatencyRecorder 保证每个线程一个实例），使用 lazySet 避免 CAS；读端可在任意线程并发读取快照。
+ */
+public class LatencyHistogram {
+    // 每个 2 的幂区间划分 64 个子桶，小于 128 的值精确计数
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * 记录一次延迟（纳秒），仅允许所属线程调用
+     */
+    public void recordValue(long value) {
+        int index = bucketIndex(value);
+        counts.lazySet(index, counts.get(index) + 1);
+        sum.lazySet(sum.get() + Math.max(value, 0));
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >>> shift) - SUB_BUCKET_HALF);
+    }
+
+    // 桶内可表示的最大值，与 HdrHistogram 的 highestEquivalentValue 一致
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * 合并另一个直方图（读取对方当前计数）
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.lazySet(i, counts.get(i) + count);
+            }
+        }
+        sum.lazySet(sum.get() + other.sum.get());
+    }
+
+    /**
+     * 返回 this - base，用于由两个累计快照计算区间直方图
+     */
+    public LatencyHistogram minus(LatencyHistogram base) {
+        LatencyHistogram result = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result.counts.lazySet(i, counts.get(i) - base.counts.get(i));
+        }
+        result.sum.lazySet(sum.get() - base.sum.get());
+        return result;
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram result = new LatencyHistogram();
+        result.add(this);
+        return result;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public double getMean() {
+        long total = getTotalCount();
+        return total == 0 ? 0 : (double) sum.get() / total;
+    }
+
+    /**
+     * 获取百分位值（纳秒），percentile 取值 0~100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += counts.get(i);
+            if (accumulated >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return getMaxValue();
+    }
+
+    public long getMaxValue() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return 0;
+    }
+}
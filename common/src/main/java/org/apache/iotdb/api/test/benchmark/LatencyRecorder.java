@@ -0,0 +1,45 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Title：按操作统计的延迟记录器
+ * Describe：每个线程首次记录时创建并登记自己的 LatencyHistogram，之后只写本线程实例，记录路径无锁、无竞争；
+ * 读取时合并所有线程的直方图得到累计快照。
+ */
+public class LatencyRecorder {
+    private final String operation;
+    private final Queue<LatencyHistogram> threadHistograms = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<LatencyHistogram> local = ThreadLocal.withInitial(() -> {
+        LatencyHistogram histogram = new LatencyHistogram();
+        threadHistograms.add(histogram);
+        return histogram;
+    });
+
+    public LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * 记录一次操作耗时（纳秒）
+     */
+    public void record(long latencyNanos) {
+        local.get().recordValue(latencyNanos);
+    }
+
+    /**
+     * 合并所有线程的累计直方图
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : threadHistograms) {
+            merged.add(histogram);
+        }
+        return merged;
+    }
+}
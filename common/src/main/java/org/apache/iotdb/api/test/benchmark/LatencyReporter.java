@@ -0,0 +1,112 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.System.out;
+
+/**
+ * Title：延迟报告
+ * Describe：按固定间隔把每个操作的区间统计（次数、ops/s、p50/p90/p99/p99.9/max）追加写入 CSV，
+ * 用于观察长时间运行中的延迟漂移；结束时在控制台输出全程汇总。
+ */
+public class LatencyReporter implements AutoCloseable {
+    public static final String CSV_HEADER = "timestamp,elapsed_s,operation,count,ops_per_s,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final List<LatencyRecorder> recorders;
+    private final List<LatencyHistogram> lastSnapshots = new ArrayList<>();
+    private final PrintWriter writer;
+    private final ScheduledExecutorService scheduler;
+    private final long startNanos;
+    private long lastNanos;
+
+    public LatencyReporter(List<LatencyRecorder> recorders, String csvFile, int intervalSeconds) throws IOException {
+        this.recorders = recorders;
+        for (int i = 0; i < recorders.size(); i++) {
+            lastSnapshots.add(new LatencyHistogram());
+        }
+        this.writer = new PrintWriter(Files.newBufferedWriter(Paths.get(csvFile), StandardCharsets.UTF_8));
+        writer.println(CSV_HEADER);
+        this.startNanos = System.nanoTime();
+        this.lastNanos = startNanos;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "latency-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::writeInterval, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // 由调度线程或 close 调用，两者不会并发（close 先停止调度）
+    private synchronized void writeInterval() {
+        long now = System.nanoTime();
+        double intervalSeconds = (now - lastNanos) / 1e9;
+        for (int i = 0; i < recorders.size(); i++) {
+            LatencyHistogram current = recorders.get(i).snapshot();
+            LatencyHistogram interval = current.minus(lastSnapshots.get(i));
+            lastSnapshots.set(i, current);
+            writer.println(System.currentTimeMillis() + "," + format((now - startNanos) / 1e9) + ","
+                    + recorders.get(i).getOperation() + "," + toCsv(interval, intervalSeconds));
+        }
+        writer.flush();
+        lastNanos = now;
+    }
+
+    private static String toCsv(LatencyHistogram histogram, double seconds) {
+        long count = histogram.getTotalCount();
+        return count + "," + format(seconds > 0 ? count / seconds : 0) + ","
+                + millis((long) histogram.getMean()) + ","
+                + millis(histogram.getValueAtPercentile(50)) + ","
+                + millis(histogram.getValueAtPercentile(90)) + ","
+                + millis(histogram.getValueAtPercentile(99)) + ","
+                + millis(histogram.getValueAtPercentile(99.9)) + ","
+                + millis(histogram.getMaxValue());
+    }
+
+    /**
+     * 格式化一行汇总，seconds 为统计时长
+     */
+    public static String summary(String operation, LatencyHistogram histogram, double seconds) {
+        long count = histogram.getTotalCount();
+        return String.format(Locale.ROOT, "%s count=%d ops/s=%.1f p50=%sms p90=%sms p99=%sms p99.9=%sms max=%sms",
+                operation, count, seconds > 0 ? count / seconds : 0,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    /**
+     * 输出每个操作的全程汇总
+     */
+    public void printSummary() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        for (LatencyRecorder recorder : recorders) {
+            out.println(summary(recorder.getOperation(), recorder.snapshot(), seconds));
+        }
+    }
+
+    static String millis(long nanos) {
+        return format(nanos / 1e6);
+    }
+
+    static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        writeInterval();
+        writer.close();
+    }
+}
@@ -0,0 +1,182 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.System.out;
+
+/**
+ * Title：并发压测配置
+ * Describe：从 config.properties（可被 -Dkey=value 覆盖）读取并发压测参数，替代 TestConcurrent 中写死的静态变量
+ */
+public class LoadConfig {
+    // 数据库数量，设备按 root.sg1 ... root.sgN 分布
+    public final int databaseCount;
+    // 每个数据库下的设备数量
+    public final int deviceCount;
+    // 每个设备的物理量数量
+    public final int sensorCount;
+    // 物理量结构来源：fixed、csv 或 mix，见 SensorSchemas
+    public final String sensorSchema;
+    public final String sensorMix;
+    public final long sensorSeed;
+    // 客户端 worker 数量，每个 worker 持有一个长连接 session
+    public final int clientCount;
+    // 是否创建对齐序列
+    public final boolean isAligned;
+    // 压测目标节点，格式 host:port
+    public final List<String> hostList;
+    public final String user;
+    public final String password;
+    // 负载类型：schema（创建元数据）、template（激活模板）、insert（写入数据）或 verify（校验写入的数据）
+    public final String workload;
+    // worker 执行器：platform（平台线程池）、virtual（虚拟线程，需 JDK 21+）或 both（两者依次运行并对比）
+    public final String executor;
+    // insert 负载是否复用 Tablet：on、off 或 both（两者依次运行并对比分配速率与 GC），默认跟随 tablet_pool
+    public final String tabletPool;
+    // insert 负载下每个设备写入的行数与时间间隔（毫秒），起始时间取 time_base
+    public final int insertRows;
+    public final long insertInterval;
+    public final long baseTime;
+    // 写入值的种子，insert 与 verify 负载需使用相同的种子
+    public final long valueSeed;
+    // 各物理量的数据形态（见 SignalValues），空表示全部使用均匀随机值
+    public final String signalSpec;
+    // insert 负载的乱序比例、最大迟到时间（毫秒）与重复时间戳比例，见 DisorderedTimestamps
+    public final double disorderRatio;
+    public final long maxLateness;
+    public final double duplicateRatio;
+    // 每次请求包含的设备数；batchSweep 非空时依次使用其中每个批量大小运行一轮（每轮前清理数据库）
+    public final int batchSize;
+    public final List<Integer> batchSweep;
+    // 进度日志文件，空表示不记录；resume 为 true 时跳过日志中已完成的设备
+    public final String journalFile;
+    public final boolean resume;
+    // 失败设备的最大重试轮数
+    public final int retryRounds;
+    // 节点选择策略：round_robin、least_outstanding 或 leader_affine，见 NodeSelector
+    public final String nodeStrategy;
+    // 开环目标速率（每秒请求数，每次请求包含 batchSize 个设备，设备速率为 targetRate * batchSize），0 表示闭环（worker 全速运行）
+    public final double targetRate;
+    // 区间延迟快照的输出间隔（秒）与 CSV 文件
+    public final int reportIntervalSeconds;
+    public final String reportFile;
+
+    private LoadConfig(ReadConfig config) {
+        this.databaseCount = config.getInt("concurrent_database_count", 1);
+        this.deviceCount = config.getInt("concurrent_device_count", 1000000);
+        this.sensorCount = config.getInt("concurrent_sensor_count", 100);
+        this.sensorSchema = config.getValue("concurrent_sensor_schema", SensorSchemas.FIXED);
+        this.sensorMix = config.getValue("concurrent_sensor_mix", "INT32=1");
+        this.sensorSeed = config.getLong("concurrent_sensor_seed", 0);
+        this.clientCount = config.getInt("concurrent_client_count", 102);
+        this.isAligned = config.getBoolean("isAligned", false);
+        this.hostList = Collections.unmodifiableList(parseHosts(config));
+        this.user = config.getValue("user");
+        this.password = config.getValue("password");
+        this.workload = config.getValue("concurrent_workload", "schema");
+        this.executor = config.getValue("concurrent_executor", "platform");
+        this.tabletPool = config.getValue("concurrent_tablet_pool", config.getBoolean("tablet_pool", false) ? "on" : "off");
+        this.insertRows = config.getInt("concurrent_insert_rows", 100);
+        this.insertInterval = config.getLong("concurrent_insert_interval", 1000);
+        this.baseTime = LocalDateTime.parse(config.getValue("time_base"), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.valueSeed = config.getLong("concurrent_value_seed", 0);
+        this.signalSpec = config.getValue("concurrent_signal", "");
+        this.disorderRatio = config.getDouble("concurrent_disorder_ratio", 0);
+        this.maxLateness = config.getLong("concurrent_max_lateness", 60000);
+        this.duplicateRatio = config.getDouble("concurrent_duplicate_ratio", 0);
+        this.batchSize = config.getInt("concurrent_batch_size", 1);
+        this.batchSweep = Collections.unmodifiableList(parseIntList(config.getValue("concurrent_batch_sweep", "")));
+        this.journalFile = config.getValue("concurrent_journal_file", "");
+        this.resume = config.getBoolean("concurrent_resume", false);
+        this.retryRounds = config.getInt("concurrent_retry_rounds", 1);
+        this.nodeStrategy = config.getValue("concurrent_node_strategy", NodeSelector.ROUND_ROBIN);
+        this.targetRate = config.getDouble("concurrent_target_rate", 0);
+        this.reportIntervalSeconds = config.getInt("concurrent_report_interval_seconds", 5);
+        this.reportFile = config.getValue("concurrent_report_file", "concurrent-latency.csv");
+    }
+
+    public static LoadConfig load() throws IOException {
+        return new LoadConfig(ReadConfig.getOverridableInstance());
+    }
+
+    // 集群模式使用 host_nodes 中的全部节点，单机模式使用 host:port
+    private static List<String> parseHosts(ReadConfig config) {
+        List<String> hosts = new ArrayList<>();
+        if ("true".equals(config.getValue("is_cluster"))) {
+            for (String node : config.getValue("host_nodes").split(",")) {
+                if (!node.trim().isEmpty()) {
+                    hosts.add(node.trim());
+                }
+            }
+        } else {
+            hosts.add(config.getValue("host") + ":" + config.getValue("port"));
+        }
+        return hosts;
+    }
+
+    static List<Integer> parseIntList(String value) {
+        List<Integer> result = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                result.add(Integer.parseInt(item.trim()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 需要处理的设备总数（所有数据库）
+     */
+    public long totalDevices() {
+        return (long) databaseCount * deviceCount;
+    }
+
+    /**
+     * 全局设备序号对应的设备路径：序号按数据库连续编排
+     */
+    public String devicePath(long deviceIndex) {
+        long databaseIndex = deviceIndex / deviceCount;
+        return "root.sg" + (databaseIndex + 1) + ".d_" + (deviceIndex % deviceCount);
+    }
+
+    /**
+     * insert 负载使用的时间戳生成器，乱序比例为 disorderRatio
+     */
+    public DisorderedTimestamps timestamps(double disorderRatio) {
+        return new DisorderedTimestamps(baseTime, insertInterval, disorderRatio, maxLateness, duplicateRatio, valueSeed);
+    }
+
+    public void print() {
+        out.println("database=" + databaseCount);
+        out.println("deviceCount=" + deviceCount);
+        out.println("sensorCount=" + sensorCount);
+        out.println("sensorSchema=" + sensorSchema + (SensorSchemas.MIX.equalsIgnoreCase(sensorSchema) ? " " + sensorMix : ""));
+        out.println("clientCount=" + clientCount);
+        out.println("isAligned=" + isAligned);
+        out.println("workload=" + workload);
+        out.println("batchSize=" + (batchSweep.isEmpty() ? String.valueOf(batchSize) : "sweep " + batchSweep));
+        if (disorderRatio > 0 || duplicateRatio > 0) {
+            out.println("disorder=" + disorderRatio + " maxLateness=" + maxLateness + "ms duplicate=" + duplicateRatio);
+        }
+        out.println("executor=" + executor);
+        if (LoadDriver.WORKLOAD_INSERT.equalsIgnoreCase(workload)) {
+            out.println("tabletPool=" + tabletPool);
+        }
+        out.println("targetRate=" + (targetRate > 0 ? targetRate + " requests/s (open-loop, x batch size devices)" : "closed-loop"));
+        out.println("hosts=" + hostList);
+        out.println("nodeStrategy=" + nodeStrategy);
+        if (!journalFile.isEmpty()) {
+            out.println("journal=" + journalFile + (resume ? " (resume)" : ""));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Title：一次压测运行的共享状态
+ * Describe：所有 worker 共享的设备领取计数器、成功/失败计数、延迟记录器、节点选择策略、各节点统计，
+ * 以及进度日志与失败重试队列
+ */
+public class LoadContext {
+    public final LoadConfig config;
+    // 每次请求处理的设备数
+    public final int batchSize;
+    // 设备领取计数器（无锁），每轮开始时归零
+    public final AtomicLong cursor = new AtomicLong();
+    // 本轮要处理的设备序号（重试轮），null 表示按顺序处理全部设备
+    public volatile long[] indices;
+    // 成功的设备数与当前仍失败的设备数
+    public final AtomicLong succeeded = new AtomicLong();
+    public final AtomicLong failed = new AtomicLong();
+    // 处理失败的设备序号，由驱动在后续重试轮中处理
+    public final Queue<Long> retryQueue = new ConcurrentLinkedQueue<>();
+    // 进度日志，未开启时为 null；续跑时其中已完成的设备会被跳过
+    public final ProgressJournal journal;
+    // 闭环时为调用耗时；开环时为从预定开始时间计算的响应时间（含排队）
+    public final LatencyRecorder recorder;
+    // 开环限速调度器与实际服务耗时记录器，闭环时为 null
+    public final Pacer pacer;
+    public final LatencyRecorder serviceRecorder;
+    // 各节点统计，下标与 config.hostList 一致
+    public final List<NodeStats> nodes;
+    public final NodeSelector selector;
+
+    public LoadContext(LoadConfig config, int batchSize, LatencyRecorder recorder) {
+        this(config, batchSize, recorder, null, null, null);
+    }
+
+    public LoadContext(LoadConfig config, int batchSize, LatencyRecorder recorder, Pacer pacer, LatencyRecorder serviceRecorder,
+                       ProgressJournal journal) {
+        this.config = config;
+        this.batchSize = batchSize;
+        this.journal = journal;
+        this.recorder = recorder;
+        this.pacer = pacer;
+        this.serviceRecorder = serviceRecorder;
+        this.nodes = new ArrayList<>(config.hostList.size());
+        for (String host : config.hostList) {
+            nodes.add(new NodeStats(host, recorder.getOperation()));
+        }
+        this.selector = NodeSelector.create(config.nodeStrategy, nodes);
+    }
+}
@@ -0,0 +1,375 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.DisorderedTimestamps;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.template.Template;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.template.MeasurementNode;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.System.out;
+
+/**
+ * Title：并发压测驱动
+ * Describe：按 concurrent_workload 创建 schema、template、insert 或 verify worker，在指定执行器（平台线程/虚拟线程）上运行一轮压测，
+ * 统计吞吐与客户端 CPU 消耗。同一驱动可在两种执行器下以相同并发度运行，便于对比。
+ */
+public class LoadDriver {
+    public static final String WORKLOAD_SCHEMA = "schema";
+    public static final String WORKLOAD_INSERT = "insert";
+    public static final String WORKLOAD_TEMPLATE = "template";
+    public static final String WORKLOAD_VERIFY = "verify";
+    // template 负载使用的设备模板名
+    public static final String TEMPLATE_NAME = "concurrent_template";
+
+    private final LoadConfig config;
+    private final String workload;
+    private final List<String> measurements;
+    private final List<TSDataType> tsDataTypes;
+    private final List<TSEncoding> tsEncodings;
+    private final List<CompressionType> compressionTypes;
+    private final List<IMeasurementSchema> schemaList;
+    // insert 负载的时间戳与当前写入轮次，默认取 concurrent_disorder_ratio 一轮写完
+    private DisorderedTimestamps timestamps;
+    private int insertRound;
+    private int insertRounds = 1;
+
+    public LoadDriver(LoadConfig config) {
+        this(config, config.workload);
+    }
+
+    public LoadDriver(LoadConfig config, String workload) {
+        if (!WORKLOAD_SCHEMA.equalsIgnoreCase(workload) && !WORKLOAD_INSERT.equalsIgnoreCase(workload)
+                && !WORKLOAD_TEMPLATE.equalsIgnoreCase(workload) && !WORKLOAD_VERIFY.equalsIgnoreCase(workload)) {
+            throw new IllegalArgumentException("bad input workload: " + workload);
+        }
+        this.config = config;
+        this.workload = workload;
+        this.measurements = new ArrayList<>(config.sensorCount);
+        this.tsDataTypes = new ArrayList<>(config.sensorCount);
+        this.tsEncodings = new ArrayList<>(config.sensorCount);
+        this.compressionTypes = new ArrayList<>(config.sensorCount);
+        this.schemaList = new ArrayList<>(config.sensorCount);
+        SensorSchemas.fill(config, tsDataTypes, tsEncodings, compressionTypes);
+        for (int i = 0; i < config.sensorCount; i++) {
+            measurements.add("s_" + i);
+            schemaList.add(new MeasurementSchema("s_" + i, tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+        }
+        setInsertRound(config.timestamps(config.disorderRatio), 0, 1);
+    }
+
+    /**
+     * 设置 insert 负载的时间戳生成器，并只写入其到达顺序中第 round 轮（共 rounds 轮）的点。
+     * 乱序或分轮写入时值须只取决于时间戳，因此要求 concurrent_signal 为均匀随机
+     */
+    public void setInsertRound(DisorderedTimestamps timestamps, int round, int rounds) {
+        if (round < 0 || round >= rounds) {
+            throw new IllegalArgumentException("bad input insert round: " + round + "/" + rounds);
+        }
+        if ((!timestamps.isSequential() || rounds > 1)
+                && !new SignalValues(config.valueSeed, config.signalSpec, measurements, tsDataTypes).isRandom()) {
+            throw new IllegalArgumentException("disordered or multi-round insert requires concurrent_signal to be random");
+        }
+        this.timestamps = timestamps;
+        this.insertRound = round;
+        this.insertRounds = rounds;
+    }
+
+    // 每个物理量的类型固定（concurrent_sensor_schema=fixed）
+    public static void getStruct(int sensorCount, List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings, List<CompressionType> compressionTypes) {
+        for (int i = 0; i < sensorCount; i++) {
+            tsDataTypes.add(TSDataType.INT32);
+            tsEncodings.add(TSEncoding.PLAIN);
+            compressionTypes.add(CompressionType.UNCOMPRESSED);
+        }
+    }
+
+    public boolean isSchema() {
+        return WORKLOAD_SCHEMA.equalsIgnoreCase(workload);
+    }
+
+    public boolean isInsert() {
+        return WORKLOAD_INSERT.equalsIgnoreCase(workload);
+    }
+
+    public boolean isVerify() {
+        return WORKLOAD_VERIFY.equalsIgnoreCase(workload);
+    }
+
+    public boolean isTemplate() {
+        return WORKLOAD_TEMPLATE.equalsIgnoreCase(workload);
+    }
+
+    public List<String> getMeasurements() {
+        return measurements;
+    }
+
+    public List<TSDataType> getTsDataTypes() {
+        return tsDataTypes;
+    }
+
+    public List<IMeasurementSchema> getSchemaList() {
+        return schemaList;
+    }
+
+    public String operationName(int batchSize) {
+        if (isInsert()) {
+            return InsertWorker.operationName(config.isAligned, batchSize);
+        } else if (isVerify()) {
+            return VerifyWorker.operationName();
+        }
+        return isTemplate() ? TemplateActivationWorker.operationName(batchSize)
+                : SchemaCreationWorker.operationName(config.isAligned, batchSize);
+    }
+
+    // 每个设备对应的产出量：schema/template 为序列数（模板激活按模板物理量数计），insert/verify 为数据点数（分轮写入时按轮平均）
+    private long unitsPerDevice() {
+        if (isInsert()) {
+            return (long) config.sensorCount * config.insertRows / insertRounds;
+        }
+        return isVerify() ? (long) config.sensorCount * config.insertRows : config.sensorCount;
+    }
+
+    private LoadWorker createWorker(LoadContext context) {
+        if (isInsert()) {
+            return new InsertWorker(context, schemaList, timestamps, insertRound, insertRounds);
+        } else if (isTemplate()) {
+            return new TemplateActivationWorker(context);
+        } else if (isVerify()) {
+            return new VerifyWorker(context, measurements, tsDataTypes);
+        }
+        return new SchemaCreationWorker(context, measurements, tsDataTypes, tsEncodings, compressionTypes);
+    }
+
+    /**
+     * 在指定执行器上运行一轮压测，worker 数量为 concurrent_client_count，每次请求处理 batchSize 个设备
+     */
+    public RunResult run(String executorMode, int batchSize, String reportFile) throws IOException, InterruptedException {
+        return run(executorMode, batchSize, reportFile, null);
+    }
+
+    /**
+     * 同上，journalFile 非空时把成功的设备记入进度日志，concurrent_resume=true 时跳过日志中已完成的设备。
+     * 主轮结束后，失败的设备最多重试 concurrent_retry_rounds 轮，仍失败的设备不写入日志，续跑时会再次处理
+     */
+    public RunResult run(String executorMode, int batchSize, String reportFile, String journalFile) throws IOException, InterruptedException {
+        if (batchSize > 1 && config.isAligned && isSchema()) {
+            // createAlignedTimeseries 只能创建单个设备，多设备批量仅支持非对齐的 createMultiTimeseries
+            throw new IllegalArgumentException("batch schema creation requires isAligned=false");
+        }
+        String operation = operationName(batchSize);
+        LatencyRecorder recorder = new LatencyRecorder(operation);
+        List<LatencyRecorder> recorders = new ArrayList<>(2);
+        recorders.add(recorder);
+        ProgressJournal journal = null;
+        if (journalFile != null && !journalFile.isEmpty()) {
+            journal = ProgressJournal.open(journalFile, config.totalDevices(), config.resume);
+            if (config.resume) {
+                out.println("resume from " + journalFile + ": skip " + journal.completed().cardinality() + " completed devices");
+            }
+        }
+        LoadContext context;
+        if (config.targetRate > 0) {
+            // 开环：按目标速率调度，主记录器记响应时间，另记服务耗时
+            LatencyRecorder serviceRecorder = new LatencyRecorder(operation + ".service");
+            recorders.add(serviceRecorder);
+            context = new LoadContext(config, batchSize, recorder, new Pacer(config.targetRate), serviceRecorder, journal);
+        } else {
+            context = new LoadContext(config, batchSize, recorder, null, null, journal);
+        }
+        // 各节点的区间延迟也写入 CSV，便于观察热点随时间的变化
+        for (NodeStats node : context.nodes) {
+            recorders.add(node.recorder);
+        }
+        LatencyReporter reporter = new LatencyReporter(recorders, reportFile, config.reportIntervalSeconds);
+        long cpuStart = JvmStats.processCpuNanos();
+        long allocatedStart = JvmStats.allocatedBytes();
+        long gcCountStart = JvmStats.gcCount();
+        long gcMillisStart = JvmStats.gcMillis();
+        long startTime = System.nanoTime();
+        ExecutorService pool = WorkerExecutors.create(executorMode, config.clientCount);
+        if (context.pacer != null) {
+            context.pacer.start();
+        }
+        runWorkers(pool, context);
+        for (int round = 1; round <= config.retryRounds && !context.retryQueue.isEmpty(); round++) {
+            long[] retry = drainRetryQueue(context);
+            out.println("retry round " + round + ": " + retry.length + " failed devices");
+            context.failed.addAndGet(-retry.length);
+            context.indices = retry;
+            context.cursor.set(0);
+            runWorkers(pool, context);
+        }
+        // 在线程池关闭前采样，JDK 21 以下只能统计存活线程的分配量
+        long allocatedBytes = allocatedStart < 0 ? -1 : JvmStats.allocatedBytes() - allocatedStart;
+        long gcCount = JvmStats.gcCount() - gcCountStart;
+        long gcMillis = JvmStats.gcMillis() - gcMillisStart;
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        long elapsedNanos = System.nanoTime() - startTime;
+        long cpuNanos = JvmStats.processCpuNanos() - cpuStart;
+        reporter.close();
+        if (journal != null) {
+            journal.close();
+        }
+        reporter.printSummary();
+        if (!context.retryQueue.isEmpty()) {
+            long[] remaining = drainRetryQueue(context);
+            out.println(remaining.length + " devices still failed after " + config.retryRounds + " retry rounds, first: "
+                    + config.devicePath(remaining[0]));
+        }
+        out.println(NodeStats.HEADER);
+        for (NodeStats node : context.nodes) {
+            out.println(node.format(elapsedNanos / 1e9));
+        }
+        return new RunResult(executorMode, config.clientCount, batchSize, context.succeeded.get(), context.failed.get(),
+                context.succeeded.get() * unitsPerDevice(), elapsedNanos, cpuNanos, recorder.snapshot(),
+                isInsert() && TabletPool.isEnabled(), allocatedBytes, gcCount, gcMillis);
+    }
+
+    // 启动 concurrent_client_count 个 worker 处理当前轮的设备，等待全部结束
+    private void runWorkers(ExecutorService pool, LoadContext context) throws InterruptedException {
+        List<Callable<Object>> workers = new ArrayList<>(config.clientCount);
+        for (int i = 0; i < config.clientCount; i++) {
+            workers.add(Executors.callable(createWorker(context)));
+        }
+        pool.invokeAll(workers);
+    }
+
+    // 取出重试队列中的全部设备序号并排序，使重试轮仍按设备顺序批量处理
+    private static long[] drainRetryQueue(LoadContext context) {
+        List<Long> failed = new ArrayList<>();
+        Long index;
+        while ((index = context.retryQueue.poll()) != null) {
+            failed.add(index);
+        }
+        long[] result = new long[failed.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = failed.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 删除压测使用的数据库，用于同一批设备的元数据重复创建
+     */
+    public void cleanDatabases() throws IoTDBConnectionException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            for (int i = 1; i <= config.databaseCount; i++) {
+                try {
+                    session.deleteDatabase("root.sg" + i);
+                } catch (StatementExecutionException e) {
+                    out.println("drop database root.sg" + i + " failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 为 template 负载创建数据库与设备模板（物理量与 schema 负载一致，对齐属性取 isAligned），并挂载到每个数据库。
+     * 同名模板已存在时先删除，要求此前已通过 cleanDatabases 删除挂载它的数据库
+     */
+    public void prepareTemplate() throws IoTDBConnectionException, StatementExecutionException, IOException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            try {
+                session.dropSchemaTemplate(TEMPLATE_NAME);
+            } catch (StatementExecutionException e) {
+                // 模板不存在
+            }
+            Template template = new Template(TEMPLATE_NAME, config.isAligned);
+            for (int i = 0; i < measurements.size(); i++) {
+                template.addToTemplate(new MeasurementNode(measurements.get(i), tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+            }
+            session.createSchemaTemplate(template);
+            for (int i = 1; i <= config.databaseCount; i++) {
+                session.createDatabase("root.sg" + i);
+                session.setSchemaTemplate(TEMPLATE_NAME, "root.sg" + i);
+            }
+        }
+    }
+
+    /**
+     * 删除 template 负载的设备模板，需在 cleanDatabases 之后调用
+     */
+    public void dropTemplate() throws IoTDBConnectionException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            session.dropSchemaTemplate(TEMPLATE_NAME);
+        } catch (StatementExecutionException e) {
+            out.println("drop template " + TEMPLATE_NAME + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 一轮压测的结果
+     */
+    public static class RunResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-10s %8s %8s %12s %8s %10s %14s %10s %12s %10s %6s %12s %8s %8s",
+                "executor", "clients", "batch", "devices", "failed", "seconds", "units/s", "cpu_s", "cpu_us/unit", "avg_cores",
+                "pool", "alloc_MB/s", "gc_count", "gc_ms");
+        public final String executor;
+        public final int clients;
+        public final int batchSize;
+        public final long devices;
+        public final long failed;
+        // 产出量：schema/template 负载为创建的序列数，insert/verify 负载为写入/校验的数据点数
+        public final long units;
+        public final long elapsedNanos;
+        public final long cpuNanos;
+        // 主记录器的累计延迟
+        public final LatencyHistogram latency;
+        // insert 负载是否复用 Tablet（TabletPool）
+        public final boolean tabletPool;
+        // 客户端堆分配字节数（不支持时为 -1）、GC 次数与耗时
+        public final long allocatedBytes;
+        public final long gcCount;
+        public final long gcMillis;
+
+        public RunResult(String executor, int clients, int batchSize, long devices, long failed, long units, long elapsedNanos, long cpuNanos,
+                         LatencyHistogram latency, boolean tabletPool, long allocatedBytes, long gcCount, long gcMillis) {
+            this.executor = executor;
+            this.clients = clients;
+            this.batchSize = batchSize;
+            this.devices = devices;
+            this.failed = failed;
+            this.units = units;
+            this.elapsedNanos = elapsedNanos;
+            this.cpuNanos = cpuNanos;
+            this.latency = latency;
+            this.tabletPool = tabletPool;
+            this.allocatedBytes = allocatedBytes;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        public double seconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = seconds();
+            return String.format(Locale.ROOT, "%-10s %8d %8d %12d %8d %10.3f %14.1f %10.3f %12.3f %10.2f %6s %12.1f %8d %8d",
+                    executor, clients, batchSize, devices, failed, seconds, units / seconds, cpuNanos / 1e9,
+                    units == 0 ? 0 : cpuNanos / 1e3 / units, cpuNanos / (double) elapsedNanos, tabletPool ? "on" : "off",
+                    allocatedBytes < 0 ? -1 : allocatedBytes / 1048576.0 / seconds, gcCount, gcMillis);
+        }
+    }
+}
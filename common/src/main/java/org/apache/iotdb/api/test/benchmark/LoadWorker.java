@@ -0,0 +1,204 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.isession.ITableSession;
+import org.apache.iotdb.isession.pool.ITableSessionPool;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.TableSessionBuilder;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.iotdb.session.pool.TableSessionPoolBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.System.out;
+
+/**
+ * Title：压测 worker 基类
+ * Describe：每个 worker 在自身线程内为各节点按需打开长连接 session，循环从共享计数器一次领取 batchSize 个连续设备序号，
+ * 由节点选择策略决定目标节点后在一次请求中处理这批设备，直到设备领取完毕。连接只建立一次，压测吞吐反映的是服务端能力而不是建连开销。
+ * 成功的设备写入进度日志（若开启），失败的设备进入重试队列（isRetryable 为 false 的失败除外）。子类只需实现对一批设备的操作。
+ */
+public abstract class LoadWorker implements Runnable {
+    protected final LoadContext context;
+    protected final LoadConfig config;
+    // 下标与 config.hostList 一致，首次发往该节点时打开
+    private final Session[] sessions;
+    // 开环模式下当前操作的预定开始时间，闭环为 -1
+    private long intendedStart = -1;
+    // 当前操作的目标节点
+    private NodeStats currentNode;
+
+    protected LoadWorker(LoadContext context) {
+        this.context = context;
+        this.config = context.config;
+        this.sessions = new Session[config.hostList.size()];
+    }
+
+    /**
+     * 在一次请求中处理一批设备，实现类在调用接口前取 System.nanoTime()，调用后通过 recordLatency 记录耗时
+     */
+    protected abstract void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException;
+
+    /**
+     * 失败的一批设备是否进入重试队列。重试得到相同结果的失败（如数据校验不一致）应返回 false
+     */
+    protected boolean isRetryable(Exception e) {
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            // 重试轮只处理 indices 中的设备，否则按序号处理全部设备
+            long[] indices = context.indices;
+            long total = indices == null ? config.totalDevices() : indices.length;
+            int batchSize = context.batchSize;
+            List<String> devices = new ArrayList<>(batchSize);
+            long[] batchIndices = new long[batchSize];
+            long first;
+            while ((first = context.cursor.getAndAdd(batchSize)) < total) {
+                devices.clear();
+                for (long i = first; i < Math.min(first + batchSize, total); i++) {
+                    long deviceIndex = indices == null ? i : indices[(int) i];
+                    if (context.journal != null && context.journal.isCompleted(deviceIndex)) {
+                        // 续跑时跳过上次已完成的设备
+                        continue;
+                    }
+                    batchIndices[devices.size()] = deviceIndex;
+                    devices.add(config.devicePath(deviceIndex));
+                }
+                if (devices.isEmpty()) {
+                    continue;
+                }
+                int node = context.selector.select(devices.get(0));
+                currentNode = context.nodes.get(node);
+                intendedStart = context.pacer == null ? -1 : context.pacer.acquire();
+                currentNode.outstanding.incrementAndGet();
+                boolean success = false;
+                try {
+                    process(session(node), devices);
+                    context.succeeded.addAndGet(devices.size());
+                    currentNode.succeeded.incrementAndGet();
+                    success = true;
+                } catch (Exception e) {
+                    context.failed.addAndGet(devices.size());
+                    currentNode.failed.incrementAndGet();
+                    if (isRetryable(e)) {
+                        for (int i = 0; i < devices.size(); i++) {
+                            context.retryQueue.add(batchIndices[i]);
+                        }
+                    }
+                    out.println(Thread.currentThread().getName() + " " + currentNode.host + " " + devices.get(0)
+                            + (devices.size() > 1 ? " (+" + (devices.size() - 1) + " devices)" : "") + " " + e);
+                } finally {
+                    currentNode.outstanding.decrementAndGet();
+                }
+                if (success && context.journal != null) {
+                    for (int i = 0; i < devices.size(); i++) {
+                        context.journal.markCompleted(batchIndices[i]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 进度日志写入失败时停止该 worker，避免记录与实际进度不一致
+            out.println(Thread.currentThread().getName() + " progress journal failed: " + e);
+        } finally {
+            for (Session session : sessions) {
+                if (session != null) {
+                    try {
+                        session.close();
+                    } catch (IoTDBConnectionException e) {
+                        out.printf("[%s] %s%n", Thread.currentThread().getName(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Session session(int node) throws IoTDBConnectionException {
+        if (sessions[node] == null) {
+            sessions[node] = openSession(config.hostList.get(node), config, context.selector.enableRedirection());
+        }
+        return sessions[node];
+    }
+
+    /**
+     * 记录一次操作：开环时响应时间从预定开始时间算起，另记服务耗时；闭环时只记调用耗时。同时计入目标节点的统计
+     */
+    protected void recordLatency(long startNanos) {
+        long endNanos = System.nanoTime();
+        long latency = endNanos - (intendedStart >= 0 ? intendedStart : startNanos);
+        context.recorder.record(latency);
+        currentNode.recorder.record(latency);
+        if (intendedStart >= 0) {
+            context.serviceRecorder.record(endNanos - startNanos);
+        }
+    }
+
+    /**
+     * 按 host:port 打开一个固定连接到该节点的 session
+     */
+    public static Session openSession(String hostAndPort, LoadConfig config) throws IoTDBConnectionException {
+        return openSession(hostAndPort, config, false);
+    }
+
+    public static Session openSession(String hostAndPort, LoadConfig config, boolean enableRedirection) throws IoTDBConnectionException {
+        int split = hostAndPort.lastIndexOf(':');
+        Session session = new Session.Builder()
+                .host(hostAndPort.substring(0, split))
+                .port(Integer.parseInt(hostAndPort.substring(split + 1)))
+                .username(config.user)
+                .password(config.password)
+                .enableRedirection(enableRedirection)
+                .build();
+        session.open(false);
+        session.setFetchSize(1000);
+        return session;
+    }
+
+    /**
+     * 按 host:port 打开一个表模型 session，与 openSession 使用相同的节点与用户（支持 -D 覆盖，不同于 PrepareConnection）
+     */
+    public static ITableSession openTableSession(String hostAndPort, LoadConfig config) throws IoTDBConnectionException {
+        return new TableSessionBuilder()
+                .nodeUrls(Collections.singletonList(hostAndPort))
+                .username(config.user)
+                .password(config.password)
+                .build();
+    }
+
+    /**
+     * 连接 config.hostList 全部节点的树模型连接池，maxSize 大于 0 时指定最大连接数，否则使用客户端默认值
+     */
+    public static SessionPool openSessionPool(LoadConfig config, int maxSize) {
+        SessionPool.Builder builder = new SessionPool.Builder()
+                .nodeUrls(config.hostList)
+                .user(config.user)
+                .password(config.password);
+        if (maxSize > 0) {
+            builder.maxSize(maxSize);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 连接 config.hostList 全部节点的表模型连接池，maxSize 含义同上，database 非空时池中的连接默认使用该数据库
+     */
+    public static ITableSessionPool openTableSessionPool(LoadConfig config, int maxSize, String database) throws IoTDBConnectionException {
+        TableSessionPoolBuilder builder = new TableSessionPoolBuilder()
+                .nodeUrls(config.hostList)
+                .user(config.user)
+                .password(config.password);
+        if (maxSize > 0) {
+            builder.maxSize(maxSize);
+        }
+        if (database != null && !database.isEmpty()) {
+            builder.database(database);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,98 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Title：节点选择策略
+ * Describe：为每次操作选择目标节点（host_nodes 中的下标），由 concurrent_node_strategy 配置：
+ * round_robin 按操作轮询；least_outstanding 选择在途请求最少的节点；
+ * leader_affine 按设备哈希固定入口节点，并开启 session 重定向，由客户端按服务端返回的 leader 重定向提示直接写入 leader。
+ */
+public interface NodeSelector {
+    String ROUND_ROBIN = "round_robin";
+    String LEAST_OUTSTANDING = "least_outstanding";
+    String LEADER_AFFINE = "leader_affine";
+
+    int select(String device);
+
+    /**
+     * 是否需要开启 session 的重定向
+     */
+    default boolean enableRedirection() {
+        return false;
+    }
+
+    static NodeSelector create(String strategy, List<NodeStats> nodes) {
+        switch (strategy.toLowerCase(Locale.ROOT)) {
+            case ROUND_ROBIN:
+                return new RoundRobin(nodes.size());
+            case LEAST_OUTSTANDING:
+                return new LeastOutstanding(nodes);
+            case LEADER_AFFINE:
+                return new LeaderAffine(nodes.size());
+            default:
+                throw new IllegalArgumentException("bad input node strategy: " + strategy);
+        }
+    }
+
+    class RoundRobin implements NodeSelector {
+        private final int nodeCount;
+        private final AtomicLong counter = new AtomicLong();
+
+        RoundRobin(int nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        @Override
+        public int select(String device) {
+            return (int) (counter.getAndIncrement() % nodeCount);
+        }
+    }
+
+    class LeastOutstanding implements NodeSelector {
+        private final List<NodeStats> nodes;
+        // 在途数相同时从不同节点开始比较，避免总是偏向第一个节点
+        private final AtomicLong counter = new AtomicLong();
+
+        LeastOutstanding(List<NodeStats> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public int select(String device) {
+            int size = nodes.size();
+            int offset = (int) (counter.getAndIncrement() % size);
+            int best = offset;
+            int bestOutstanding = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int index = (offset + i) % size;
+                int outstanding = nodes.get(index).outstanding.get();
+                if (outstanding < bestOutstanding) {
+                    best = index;
+                    bestOutstanding = outstanding;
+                }
+            }
+            return best;
+        }
+    }
+
+    class LeaderAffine implements NodeSelector {
+        private final int nodeCount;
+
+        LeaderAffine(int nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        @Override
+        public int select(String device) {
+            return Math.floorMod(device.hashCode(), nodeCount);
+        }
+
+        @Override
+        public boolean enableRedirection() {
+            return true;
+        }
+    }
+}
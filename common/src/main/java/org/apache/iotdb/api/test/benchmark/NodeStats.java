@@ -0,0 +1,39 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Title：单个节点的压测统计
+ * Describe：记录发往该节点的操作次数、失败次数、在途请求数与延迟分布，用于定位集群中的 DataNode 热点
+ */
+public class NodeStats {
+    public static final String HEADER = String.format(Locale.ROOT, "%-24s %12s %8s %8s %12s %10s %10s %10s %10s",
+            "node", "ops", "errors", "err%", "ops/s", "p50_ms", "p99_ms", "p999_ms", "max_ms");
+
+    public final String host;
+    public final LatencyRecorder recorder;
+    public final AtomicLong succeeded = new AtomicLong();
+    public final AtomicLong failed = new AtomicLong();
+    // 当前在途请求数，供 least_outstanding 策略使用
+    public final AtomicInteger outstanding = new AtomicInteger();
+
+    public NodeStats(String host, String operation) {
+        this.host = host;
+        this.recorder = new LatencyRecorder(operation + "@" + host);
+    }
+
+    public String format(double seconds) {
+        LatencyHistogram histogram = recorder.snapshot();
+        long ops = succeeded.get();
+        long errors = failed.get();
+        long total = ops + errors;
+        return String.format(Locale.ROOT, "%-24s %12d %8d %8.2f %12.1f %10s %10s %10s %10s",
+                host, ops, errors, total == 0 ? 0 : errors * 100.0 / total, seconds > 0 ? ops / seconds : 0,
+                LatencyReporter.millis(histogram.getValueAtPercentile(50)),
+                LatencyReporter.millis(histogram.getValueAtPercentile(99)),
+                LatencyReporter.millis(histogram.getValueAtPercentile(99.9)),
+                LatencyReporter.millis(histogram.getMaxValue()));
+    }
+}
@@ -0,0 +1,43 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Title：开环限速调度器
+ * Describe：按目标速率（ops/s）为第 n 次操作分配预定开始时间 start + n / rate，调用方在预定时间前等待。
+ * 延迟从预定开始时间计算而不是实际发送时间：服务端卡顿时后续操作的排队时间会计入延迟，
+ * 避免闭环压测中的 coordinated omission（卡顿期间少发请求导致高百分位被低估）。
+ */
+public class Pacer {
+    private final double nanosPerOp;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long startNanos;
+
+    public Pacer(double opsPerSecond) {
+        if (opsPerSecond <= 0) {
+            throw new IllegalArgumentException("target rate must be positive: " + opsPerSecond);
+        }
+        this.nanosPerOp = 1e9 / opsPerSecond;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 重新设定调度起点，在 worker 启动前调用
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 领取下一个操作的预定开始时间（System.nanoTime 基准），未到时间则等待；已落后时立即返回过去的预定时间
+     */
+    public long acquire() {
+        long intended = startNanos + (long) (sequence.getAndIncrement() * nanosPerOp);
+        long remaining;
+        while ((remaining = intended - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        return intended;
+    }
+}
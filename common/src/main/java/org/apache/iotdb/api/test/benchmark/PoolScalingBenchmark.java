@@ -0,0 +1,395 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.ITableSession;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.isession.pool.ITableSessionPool;
+import org.apache.iotdb.isession.pool.SessionDataSetWrapper;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.out;
+
+/**
+ * Title：连接池扩展性压测
+ * Describe：以相同的写入/查询混合负载比较三种连接方式随线程数的扩展性：session（每个线程一个 Session）、
+ * session_pool（所有线程共享一个 SessionPool，树模型）与 table_pool（所有线程共享一个 ITableSessionPool，表模型）。
+ * 遍历 pool_scaling_thread_sweep 中的线程数与 pool_scaling_max_size_sweep 中的连接池最大连接数（session 方式不涉及连接池，只运行一次），
+ * 每个组合运行 pool_scaling_seconds 秒：每个线程写自己的设备，每次写入 pool_scaling_rows 行（物理量同 concurrent_sensor_* 配置），
+ * 按 pool_scaling_query_ratio 的比例改为查询该设备的最新一行。
+ * 输出吞吐、p50/p99 延迟与等待连接的时间：table_pool 为 getSession 的耗时；SessionPool 不暴露借连接的耗时，
+ * 改为每 10 毫秒采样一次连接是否全部被占用，输出被占满的时间比例。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.PoolScalingBenchmark
+ */
+public class PoolScalingBenchmark {
+    public static final String MODE_SESSION = "session";
+    public static final String MODE_SESSION_POOL = "session_pool";
+    public static final String MODE_TABLE_POOL = "table_pool";
+    // 树模型写入的数据库与表模型写入的数据库、表
+    private static final String TREE_DATABASE = "root.pool_scaling";
+    private static final String TABLE_DATABASE = "pool_scaling";
+    private static final String TABLE_NAME = "pool_t";
+
+    private final LoadConfig config;
+    private final String executor;
+    private final int seconds;
+    private final int rows;
+    private final double queryRatio;
+    private final List<IMeasurementSchema> schemaList;
+    private final List<String> tableColumns;
+    private final List<TSDataType> tableTypes;
+    private final List<ColumnCategory> tableCategories;
+
+    public PoolScalingBenchmark(LoadConfig config, int seconds, int rows, double queryRatio) {
+        this.config = config;
+        // 扩展性对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.seconds = seconds;
+        this.rows = rows;
+        this.queryRatio = queryRatio;
+        List<TSDataType> tsDataTypes = new ArrayList<>(config.sensorCount);
+        List<TSEncoding> tsEncodings = new ArrayList<>(config.sensorCount);
+        List<CompressionType> compressionTypes = new ArrayList<>(config.sensorCount);
+        SensorSchemas.fill(config, tsDataTypes, tsEncodings, compressionTypes);
+        this.schemaList = new ArrayList<>(config.sensorCount);
+        // 表模型为 device_id 标签列加同样的测点列
+        this.tableColumns = new ArrayList<>(config.sensorCount + 1);
+        this.tableTypes = new ArrayList<>(config.sensorCount + 1);
+        this.tableCategories = new ArrayList<>(config.sensorCount + 1);
+        tableColumns.add("device_id");
+        tableTypes.add(TSDataType.STRING);
+        tableCategories.add(ColumnCategory.TAG);
+        for (int i = 0; i < config.sensorCount; i++) {
+            schemaList.add(new MeasurementSchema("s_" + i, tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+            tableColumns.add("s_" + i);
+            tableTypes.add(tsDataTypes.get(i));
+            tableCategories.add(ColumnCategory.FIELD);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<String> modes = new ArrayList<>();
+        for (String mode : readConfig.getValue("pool_scaling_modes", MODE_SESSION + "," + MODE_SESSION_POOL + "," + MODE_TABLE_POOL).split(",")) {
+            if (!mode.trim().isEmpty()) {
+                modes.add(mode.trim());
+            }
+        }
+        List<Integer> threadCounts = LoadConfig.parseIntList(readConfig.getValue("pool_scaling_thread_sweep", "1,2,4,8,16,32,64,128,256"));
+        List<Integer> maxSizes = LoadConfig.parseIntList(readConfig.getValue("pool_scaling_max_size_sweep", "8,32,128"));
+        PoolScalingBenchmark benchmark = new PoolScalingBenchmark(config, readConfig.getInt("pool_scaling_seconds", 10),
+                readConfig.getInt("pool_scaling_rows", 100), readConfig.getDouble("pool_scaling_query_ratio", 0.1));
+
+        List<ScalingResult> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<Integer> sizes = MODE_SESSION.equals(mode) ? Arrays.asList(0) : maxSizes;
+            for (int maxSize : sizes) {
+                for (int threads : threadCounts) {
+                    out.println("######## " + mode + (maxSize > 0 ? " max_size=" + maxSize : "") + " threads=" + threads + " ########");
+                    results.add(benchmark.run(mode, maxSize, threads));
+                }
+            }
+        }
+        benchmark.dropDatabases();
+
+        out.println(ScalingResult.HEADER);
+        for (ScalingResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 在干净的数据库上以 threads 个线程运行 pool_scaling_seconds 秒，maxSize 为连接池最大连接数（session 方式忽略）
+     */
+    public ScalingResult run(String mode, int maxSize, int threads)
+            throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        if (!MODE_SESSION.equals(mode) && !MODE_SESSION_POOL.equals(mode) && !MODE_TABLE_POOL.equals(mode)) {
+            throw new IllegalArgumentException("bad input pool_scaling_modes: " + mode);
+        }
+        dropDatabases();
+        prepareDatabase(mode);
+        LatencyRecorder writeRecorder = new LatencyRecorder("write");
+        LatencyRecorder queryRecorder = new LatencyRecorder("query");
+        LatencyRecorder waitRecorder = new LatencyRecorder("wait");
+        LongAdder failed = new LongAdder();
+        SessionPool sessionPool = MODE_SESSION_POOL.equals(mode) ? LoadWorker.openSessionPool(config, maxSize) : null;
+        ITableSessionPool tablePool = MODE_TABLE_POOL.equals(mode) ? LoadWorker.openTableSessionPool(config, maxSize, TABLE_DATABASE) : null;
+        // 每个线程的 Session 在计时前打开
+        List<Session> sessions = new ArrayList<>();
+        if (MODE_SESSION.equals(mode)) {
+            for (int i = 0; i < threads; i++) {
+                sessions.add(LoadWorker.openSession(config.hostList.get(i % config.hostList.size()), config));
+            }
+        }
+        AtomicLong samples = new AtomicLong();
+        AtomicLong saturatedSamples = new AtomicLong();
+        Thread sampler = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        if (sessionPool != null) {
+            SessionPool pool = sessionPool;
+            sampler = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    samples.incrementAndGet();
+                    if (pool.currentAvailableSize() == 0 && pool.currentOccupiedSize() >= maxSize) {
+                        saturatedSamples.incrementAndGet();
+                    }
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "pool-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+
+        List<Callable<Object>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Session session = sessions.isEmpty() ? null : sessions.get(i);
+            workers.add(() -> {
+                runWorker(index, deadline, session, sessionPool, tablePool, writeRecorder, queryRecorder, waitRecorder, failed);
+                return null;
+            });
+        }
+        ExecutorService pool = WorkerExecutors.create(executor, threads);
+        long startTime = System.nanoTime();
+        pool.invokeAll(workers);
+        long elapsedNanos = System.nanoTime() - startTime;
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        if (sampler != null) {
+            sampler.join();
+        }
+        for (Session session : sessions) {
+            session.close();
+        }
+        if (sessionPool != null) {
+            sessionPool.close();
+        }
+        if (tablePool != null) {
+            tablePool.close();
+        }
+        LatencyHistogram writes = writeRecorder.snapshot();
+        LatencyHistogram queries = queryRecorder.snapshot();
+        out.println(LatencyReporter.summary("write", writes, elapsedNanos / 1e9));
+        out.println(LatencyReporter.summary("query", queries, elapsedNanos / 1e9));
+        LatencyHistogram all = writes.copy();
+        all.add(queries);
+        double saturated = samples.get() == 0 ? -1 : (double) saturatedSamples.get() / samples.get();
+        return new ScalingResult(mode, maxSize, threads, writes.getTotalCount(), queries.getTotalCount(), failed.sum(),
+                writes.getTotalCount() * rows * config.sensorCount, elapsedNanos, all,
+                tablePool != null ? waitRecorder.snapshot() : null, saturated);
+    }
+
+    // 一个线程循环执行写入或查询直到截止时间，延迟包含等待连接的时间
+    private void runWorker(int index, long deadline, Session session, SessionPool sessionPool, ITableSessionPool tablePool,
+                           LatencyRecorder writeRecorder, LatencyRecorder queryRecorder, LatencyRecorder waitRecorder, LongAdder failed) {
+        String device = tablePool != null ? "d_" + index : TREE_DATABASE + ".d_" + index;
+        SplittableRandom random = new SplittableRandom(index);
+        // 每个线程整个运行期间复用同一个 Tablet，开启 tablet_pool 时在不同的扫描点之间也复用本线程的 Tablet
+        TabletPool pool = TabletPool.local();
+        Tablet tablet = tablePool != null ? pool.acquire(TABLE_NAME, tableColumns, tableTypes, tableCategories, rows)
+                : pool.acquire(device, schemaList, rows);
+        long timestamp = config.baseTime;
+        while (System.nanoTime() < deadline) {
+            boolean query = random.nextDouble() < queryRatio;
+            if (!query) {
+                fill(tablet, device, timestamp, tablePool != null);
+                timestamp += (long) rows * config.insertInterval;
+            }
+            long startTime = System.nanoTime();
+            try {
+                if (tablePool != null) {
+                    ITableSession tableSession = tablePool.getSession();
+                    waitRecorder.record(System.nanoTime() - startTime);
+                    try {
+                        if (query) {
+                            try (SessionDataSet dataSet = tableSession.executeQueryStatement("select * from " + TABLE_NAME
+                                    + " where device_id = '" + device + "' order by time desc limit 1")) {
+                                drain(dataSet);
+                            }
+                        } else {
+                            tableSession.insert(tablet);
+                        }
+                    } finally {
+                        // 关闭即归还连接池
+                        tableSession.close();
+                    }
+                } else if (sessionPool != null) {
+                    if (query) {
+                        SessionDataSetWrapper dataSet = sessionPool.executeQueryStatement("select last * from " + device);
+                        try {
+                            while (dataSet.hasNext()) {
+                                dataSet.next();
+                            }
+                        } finally {
+                            sessionPool.closeResultSet(dataSet);
+                        }
+                    } else if (config.isAligned) {
+                        sessionPool.insertAlignedTablet(tablet);
+                    } else {
+                        sessionPool.insertTablet(tablet);
+                    }
+                } else if (query) {
+                    try (SessionDataSet dataSet = session.executeQueryStatement("select last * from " + device)) {
+                        drain(dataSet);
+                    }
+                } else if (config.isAligned) {
+                    session.insertAlignedTablet(tablet);
+                } else {
+                    session.insertTablet(tablet);
+                }
+                (query ? queryRecorder : writeRecorder).record(System.nanoTime() - startTime);
+            } catch (Exception e) {
+                failed.increment();
+                if (failed.sum() <= 10) {
+                    out.println(Thread.currentThread().getName() + " " + device + " " + e);
+                }
+            }
+        }
+        // 循环内已捕获全部异常
+        pool.release(tablet);
+    }
+
+    private static void drain(SessionDataSet dataSet) throws IoTDBConnectionException, StatementExecutionException {
+        while (dataSet.hasNext()) {
+            dataSet.next();
+        }
+    }
+
+    // 以 firstTimestamp 起的 rows 行填满 Tablet，表模型的第一列为设备标签
+    private void fill(Tablet tablet, String device, long firstTimestamp, boolean table) {
+        tablet.reset();
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
+        for (int row = 0; row < rows; row++) {
+            builder.addRow(firstTimestamp + row * config.insertInterval);
+            if (table) {
+                builder.setString(0, device);
+            }
+        }
+        int first = table ? 1 : 0;
+        for (int column = first; column < builder.columnCount(); column++) {
+            if (!GenerateValues.fillTabletColumn(builder.type(column), builder.column(column), 0, rows)) {
+                builder.setNull(column, 0, rows);
+            }
+        }
+        builder.build();
+    }
+
+    // 树模型写入前创建数据库（序列自动创建）；表模型创建数据库与表
+    private void prepareDatabase(String mode) throws IoTDBConnectionException, StatementExecutionException {
+        if (MODE_TABLE_POOL.equals(mode)) {
+            try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+                session.executeNonQueryStatement("create database " + TABLE_DATABASE);
+                session.executeNonQueryStatement("use " + TABLE_DATABASE);
+                StringBuilder sql = new StringBuilder("create table " + TABLE_NAME + " (device_id STRING TAG");
+                for (int i = 1; i < tableColumns.size(); i++) {
+                    sql.append(", ").append(tableColumns.get(i)).append(' ').append(tableTypes.get(i).name()).append(" FIELD");
+                }
+                session.executeNonQueryStatement(sql.append(')').toString());
+            } catch (IoTDBConnectionException | StatementExecutionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+                session.createDatabase(TREE_DATABASE);
+            }
+        }
+    }
+
+    /**
+     * 删除压测使用的树模型与表模型数据库
+     */
+    public void dropDatabases() throws IoTDBConnectionException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            session.deleteDatabase(TREE_DATABASE);
+        } catch (StatementExecutionException e) {
+            // 数据库不存在
+        }
+        try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+            session.executeNonQueryStatement("drop database if exists " + TABLE_DATABASE);
+        } catch (IoTDBConnectionException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("drop database " + TABLE_DATABASE + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 一个组合的结果
+     */
+    public static class ScalingResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-13s %8s %8s %12s %14s %10s %10s %12s %12s %10s %8s",
+                "mode", "max_size", "threads", "ops/s", "points/s", "p50_ms", "p99_ms", "wait_p99_ms", "wait_mean_ms", "saturated", "failed");
+        public final String mode;
+        public final int maxSize;
+        public final int threads;
+        public final long writes;
+        public final long queries;
+        public final long failed;
+        public final long points;
+        public final long elapsedNanos;
+        // 写入与查询合并的延迟
+        public final LatencyHistogram latency;
+        // table_pool 等待连接的耗时，其他方式为 null
+        public final LatencyHistogram wait;
+        // session_pool 连接全部被占用的采样比例，其他方式为 -1
+        public final double saturated;
+
+        public ScalingResult(String mode, int maxSize, int threads, long writes, long queries, long failed, long points,
+                             long elapsedNanos, LatencyHistogram latency, LatencyHistogram wait, double saturated) {
+            this.mode = mode;
+            this.maxSize = maxSize;
+            this.threads = threads;
+            this.writes = writes;
+            this.queries = queries;
+            this.failed = failed;
+            this.points = points;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+            this.wait = wait;
+            this.saturated = saturated;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format(Locale.ROOT, "%-13s %8s %8d %12.1f %14.1f %10s %10s %12s %12s %10s %8d",
+                    mode, maxSize > 0 ? String.valueOf(maxSize) : "-", threads, (writes + queries) / seconds, points / seconds,
+                    LatencyReporter.millis(latency.getValueAtPercentile(50)), LatencyReporter.millis(latency.getValueAtPercentile(99)),
+                    wait == null ? "-" : LatencyReporter.millis(wait.getValueAtPercentile(99)),
+                    wait == null ? "-" : LatencyReporter.millis((long) wait.getMean()),
+                    saturated < 0 ? "-" : String.format(Locale.ROOT, "%.1f%%", saturated * 100), failed);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Title：压测进度日志
+ * Describe：只追加的内存映射文件，记录已成功处理的设备序号，客户端崩溃后可据此续跑并跳过已完成的设备。
+ * 文件格式：16 字节文件头（魔数、设备总数），之后每条记录 8 字节（设备序号 + 1，0 表示未写入的空位）。
+ * worker 通过原子计数器领取记录位置后直接写入映射区，无锁；文件按段映射，写满时扩展下一段。
+ * 映射区写入由操作系统页缓存保存，进程崩溃不会丢失；close 时 force 落盘。
+ */
+public class ProgressJournal implements AutoCloseable {
+    private static final long MAGIC = 0x494f5444424a4e4cL;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 8;
+    // 每段映射 8MB，可容纳约 100 万条记录
+    private static final long SEGMENT_BYTES = 8L << 20;
+
+    private final FileChannel channel;
+    private final BitSet completed;
+    private final AtomicLong nextRecord;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    private ProgressJournal(FileChannel channel, BitSet completed, long nextRecord) {
+        this.channel = channel;
+        this.completed = completed;
+        this.nextRecord = new AtomicLong(nextRecord);
+    }
+
+    /**
+     * 打开进度日志。resume 为 true 时读取已有记录并在其后继续追加，否则清空重新记录
+     */
+    public static ProgressJournal open(String file, long totalDevices, boolean resume) throws IOException {
+        if (totalDevices > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("progress journal supports at most " + Integer.MAX_VALUE + " devices");
+        }
+        Path path = Paths.get(file);
+        BitSet completed = new BitSet((int) totalDevices);
+        long nextRecord = 0;
+        if (resume && Files.exists(path)) {
+            nextRecord = load(path, totalDevices, completed);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (nextRecord == 0) {
+            channel.truncate(0);
+        }
+        ProgressJournal journal = new ProgressJournal(channel, completed, nextRecord);
+        MappedByteBuffer header = journal.segment(0);
+        header.putLong(0, MAGIC);
+        header.putLong(8, totalDevices);
+        return journal;
+    }
+
+    // 读取已完成的设备序号，返回最后一条有效记录之后的位置
+    private static long load(Path path, long totalDevices, BitSet completed) throws IOException {
+        try (InputStream stream = Files.newInputStream(path);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            long magic = input.readLong();
+            if (magic == 0) {
+                // 创建映射后、写入文件头前崩溃，视为空日志
+                return 0;
+            }
+            if (magic != MAGIC) {
+                throw new IllegalStateException(path + " is not a progress journal");
+            }
+            long journalTotal = input.readLong();
+            if (journalTotal != totalDevices) {
+                throw new IllegalStateException(path + " was written for " + journalTotal + " devices, current run has " + totalDevices);
+            }
+            long record = 0;
+            long next = 0;
+            while (true) {
+                long value;
+                try {
+                    value = input.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                record++;
+                if (value > 0 && value <= totalDevices) {
+                    completed.set((int) (value - 1));
+                    next = record;
+                }
+            }
+            return next;
+        } catch (EOFException e) {
+            // 文件头不完整，视为空日志
+            return 0;
+        }
+    }
+
+    /**
+     * 续跑时已完成的设备，运行期间只读
+     */
+    public BitSet completed() {
+        return completed;
+    }
+
+    public boolean isCompleted(long deviceIndex) {
+        return completed.get((int) deviceIndex);
+    }
+
+    /**
+     * 记录一个已成功处理的设备，可由多个线程并发调用
+     */
+    public void markCompleted(long deviceIndex) throws IOException {
+        long position = HEADER_BYTES + nextRecord.getAndIncrement() * RECORD_BYTES;
+        segment((int) (position / SEGMENT_BYTES)).putLong((int) (position % SEGMENT_BYTES), deviceIndex + 1);
+    }
+
+    private MappedByteBuffer segment(int index) throws IOException {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = segments;
+            if (index >= current.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i <= index; i++) {
+                    grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * SEGMENT_BYTES, SEGMENT_BYTES);
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        channel.close();
+    }
+}
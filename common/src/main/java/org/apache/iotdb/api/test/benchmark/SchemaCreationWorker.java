@@ -0,0 +1,69 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Title：元数据创建 worker
+ * Describe：为领取到的设备创建全部序列，对齐时调用 createAlignedTimeseries（仅支持单设备），
+ * 否则把整批设备的全部路径打包进一次 createMultiTimeseries 请求
+ */
+public class SchemaCreationWorker extends LoadWorker {
+    private final List<String> measurements;
+    private final List<TSDataType> tsDataTypes;
+    private final List<TSEncoding> tsEncodings;
+    private final List<CompressionType> compressionTypes;
+    // 按批量大小展开后的类型/编码/压缩列表（createMultiTimeseries 要求与路径一一对应），按需扩容
+    private final List<TSDataType> batchDataTypes = new ArrayList<>();
+    private final List<TSEncoding> batchEncodings = new ArrayList<>();
+    private final List<CompressionType> batchCompressionTypes = new ArrayList<>();
+
+    public SchemaCreationWorker(LoadContext context, List<String> measurements,
+                                List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings, List<CompressionType> compressionTypes) {
+        super(context);
+        this.measurements = measurements;
+        this.tsDataTypes = tsDataTypes;
+        this.tsEncodings = tsEncodings;
+        this.compressionTypes = compressionTypes;
+    }
+
+    @Override
+    protected void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException {
+        if (config.isAligned) {
+            long startTime = System.nanoTime();
+            session.createAlignedTimeseries(devices.get(0), measurements, tsDataTypes, tsEncodings, compressionTypes, null);
+            recordLatency(startTime);
+        } else {
+            List<String> paths = new ArrayList<>(measurements.size() * devices.size());
+            for (String device : devices) {
+                for (String measurement : measurements) {
+                    paths.add(device + "." + measurement);
+                }
+            }
+            while (batchDataTypes.size() < paths.size()) {
+                batchDataTypes.addAll(tsDataTypes);
+                batchEncodings.addAll(tsEncodings);
+                batchCompressionTypes.addAll(compressionTypes);
+            }
+            int size = paths.size();
+            long startTime = System.nanoTime();
+            session.createMultiTimeseries(paths, batchDataTypes.subList(0, size), batchEncodings.subList(0, size),
+                    batchCompressionTypes.subList(0, size), null, null, null, null);
+            recordLatency(startTime);
+        }
+    }
+
+    /**
+     * 本 worker 使用的建序列接口名，作为延迟统计的操作名
+     */
+    public static String operationName(boolean isAligned, int batchSize) {
+        return isAligned ? "createAlignedTimeseries" : batchSize > 1 ? "createMultiTimeseries[x" + batchSize + "]" : "createMultiTimeseries";
+    }
+}
@@ -0,0 +1,160 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.CustomDataProvider;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Title：压测物理量结构
+ * Describe：按 concurrent_sensor_schema 为每个物理量生成数据类型、编码与压缩方式：
+ * fixed 全部为 INT32/PLAIN/UNCOMPRESSED；csv 从 data/tree/ts-structures.csv 的合法组合中随机抽取；
+ * mix 按 concurrent_sensor_mix 中的权重抽取数据类型（未指定编码/压缩时从 csv 中该类型的组合里抽取）。
+ * 抽样使用 concurrent_sensor_seed 作为种子，同一配置每次生成的结构一致，元数据与写入两种负载可以对应。
+ */
+public class SensorSchemas {
+    public static final String FIXED = "fixed";
+    public static final String CSV = "csv";
+    public static final String MIX = "mix";
+    private static final String STRUCTURE_FILE = "data/tree/ts-structures.csv";
+
+    /**
+     * 为 sensorCount 个物理量填充类型、编码与压缩方式
+     */
+    public static void fill(LoadConfig config, List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings,
+                            List<CompressionType> compressionTypes) {
+        fill(config, config.sensorCount, tsDataTypes, tsEncodings, compressionTypes);
+    }
+
+    /**
+     * 同上，物理量个数为 sensorCount；同一 concurrent_sensor_seed 下较少的物理量是较多物理量的前缀
+     */
+    public static void fill(LoadConfig config, int sensorCount, List<TSDataType> tsDataTypes, List<TSEncoding> tsEncodings,
+                            List<CompressionType> compressionTypes) {
+        String mode = config.sensorSchema.toLowerCase(Locale.ROOT);
+        if (FIXED.equals(mode)) {
+            LoadDriver.getStruct(sensorCount, tsDataTypes, tsEncodings, compressionTypes);
+            return;
+        }
+        List<List<Object>> structures = loadStructures();
+        SplittableRandom random = new SplittableRandom(config.sensorSeed);
+        if (CSV.equals(mode)) {
+            for (int i = 0; i < sensorCount; i++) {
+                List<Object> structure = structures.get(random.nextInt(structures.size()));
+                tsDataTypes.add((TSDataType) structure.get(0));
+                tsEncodings.add((TSEncoding) structure.get(1));
+                compressionTypes.add((CompressionType) structure.get(2));
+            }
+        } else if (MIX.equals(mode)) {
+            List<MixEntry> entries = parseMix(config.sensorMix);
+            int totalWeight = 0;
+            for (MixEntry entry : entries) {
+                totalWeight += entry.weight;
+            }
+            for (int i = 0; i < sensorCount; i++) {
+                int point = random.nextInt(totalWeight);
+                MixEntry entry = entries.get(entries.size() - 1);
+                for (MixEntry candidate : entries) {
+                    point -= candidate.weight;
+                    if (point < 0) {
+                        entry = candidate;
+                        break;
+                    }
+                }
+                TSEncoding encoding = entry.encoding;
+                CompressionType compressionType = entry.compressionType;
+                if (encoding == null || compressionType == null) {
+                    List<Object> structure = randomStructureOfType(structures, entry.type, random);
+                    encoding = encoding != null ? encoding : structure == null ? TSEncoding.PLAIN : (TSEncoding) structure.get(1);
+                    compressionType = compressionType != null ? compressionType
+                            : structure == null ? CompressionType.UNCOMPRESSED : (CompressionType) structure.get(2);
+                }
+                tsDataTypes.add(entry.type);
+                tsEncodings.add(encoding);
+                compressionTypes.add(compressionType);
+            }
+        } else {
+            throw new IllegalArgumentException("bad input sensor schema: " + config.sensorSchema);
+        }
+    }
+
+    private static List<List<Object>> loadStructures() {
+        try {
+            List<List<Object>> structures = new ArrayList<>();
+            for (List<Object> structure : new CustomDataProvider().parseTSStructure(STRUCTURE_FILE)) {
+                if (structure.get(0) != null) {
+                    structures.add(structure);
+                }
+            }
+            return structures;
+        } catch (IOException e) {
+            throw new IllegalStateException("read " + STRUCTURE_FILE + " failed", e);
+        }
+    }
+
+    private static List<Object> randomStructureOfType(List<List<Object>> structures, TSDataType type, SplittableRandom random) {
+        List<List<Object>> candidates = new ArrayList<>();
+        for (List<Object> structure : structures) {
+            if (structure.get(0) == type) {
+                candidates.add(structure);
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+
+    // 格式：TYPE[:ENCODING[:COMPRESSOR]]=weight，多项以逗号分隔，例如 INT32=4,DOUBLE:GORILLA=2,TEXT:PLAIN:LZ4=1
+    private static List<MixEntry> parseMix(String mix) {
+        List<MixEntry> entries = new ArrayList<>();
+        for (String item : mix.split(",")) {
+            if (item.trim().isEmpty()) {
+                continue;
+            }
+            String[] keyValue = item.trim().split("=");
+            String[] parts = keyValue[0].trim().toUpperCase(Locale.ROOT).split(":");
+            int weight = keyValue.length > 1 ? Integer.parseInt(keyValue[1].trim()) : 1;
+            if (weight <= 0) {
+                continue;
+            }
+            entries.add(new MixEntry(TSDataType.valueOf(parts[0]),
+                    parts.length > 1 ? TSEncoding.valueOf(parts[1]) : null,
+                    parts.length > 2 ? CompressionType.valueOf(parts[2]) : null, weight));
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("bad input sensor mix: " + mix);
+        }
+        return entries;
+    }
+
+    /**
+     * 按数据类型统计物理量数量，用于输出
+     */
+    public static String describe(List<TSDataType> tsDataTypes) {
+        Map<TSDataType, Integer> counts = new EnumMap<>(TSDataType.class);
+        for (TSDataType type : tsDataTypes) {
+            counts.merge(type, 1, Integer::sum);
+        }
+        return counts.toString();
+    }
+
+    private static class MixEntry {
+        private final TSDataType type;
+        private final TSEncoding encoding;
+        private final CompressionType compressionType;
+        private final int weight;
+
+        private MixEntry(TSDataType type, TSEncoding encoding, CompressionType compressionType, int weight) {
+            this.type = type;
+            this.encoding = encoding;
+            this.compressionType = compressionType;
+            this.weight = weight;
+        }
+    }
+}
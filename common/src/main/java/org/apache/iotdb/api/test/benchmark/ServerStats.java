@@ -0,0 +1,111 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Title：服务端状态统计
+ * Describe：通过 count/show 语句读取压测数据库（root.sg*）的元数据规模与 SchemaRegion 数量，
+ * 并可执行一条可配置的内存查询语句（例如开启 IOTDB metric reporter 后对 root.__system 下内存指标的 last 查询），
+ * 把结果中的数值列求和作为服务端内存占用。查询失败或未配置时对应项为 -1，不影响压测本身。
+ */
+public class ServerStats {
+    public static final String HEADER = String.format(Locale.ROOT, "%14s %12s %14s %16s",
+            "timeseries", "devices", "schemaRegions", "memory");
+    private static final String PATH = "root.sg*.**";
+
+    public final long timeseries;
+    public final long devices;
+    public final long schemaRegions;
+    public final double memory;
+
+    private ServerStats(long timeseries, long devices, long schemaRegions, double memory) {
+        this.timeseries = timeseries;
+        this.devices = devices;
+        this.schemaRegions = schemaRegions;
+        this.memory = memory;
+    }
+
+    /**
+     * 采集一次服务端状态，memorySql 为空时不采集内存
+     */
+    public static ServerStats capture(Session session, String memorySql) {
+        return new ServerStats(count(session, "count timeseries " + PATH), count(session, "count devices " + PATH),
+                countSchemaRegions(session), memory(session, memorySql));
+    }
+
+    /**
+     * 只采集服务端内存，memorySql 为空或查询失败时返回 -1
+     */
+    public static double memory(Session session, String memorySql) {
+        return memorySql == null || memorySql.trim().isEmpty() ? -1 : sumNumeric(session, memorySql);
+    }
+
+    /**
+     * 执行 count 语句并返回第一列的值，失败返回 -1
+     */
+    public static long count(Session session, String sql) {
+        try (SessionDataSet dataSet = session.executeQueryStatement(sql)) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            return iterator.next() ? iterator.getLong(1) : 0;
+        } catch (IoTDBConnectionException | StatementExecutionException e) {
+            System.out.println(sql + " failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // show regions 中每个副本一行，按 RegionId 去重
+    private static long countSchemaRegions(Session session) {
+        try (SessionDataSet dataSet = session.executeQueryStatement("show regions")) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            Set<String> regionIds = new HashSet<>();
+            while (iterator.next()) {
+                String database = iterator.getString("Database");
+                if ("SchemaRegion".equals(iterator.getString("Type")) && database != null && database.startsWith("root.sg")) {
+                    regionIds.add(iterator.getString("RegionId"));
+                }
+            }
+            return regionIds.size();
+        } catch (IoTDBConnectionException | StatementExecutionException e) {
+            System.out.println("show regions failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // 对结果中所有能解析为数值的列（Time 列除外）求和
+    private static double sumNumeric(Session session, String sql) {
+        try (SessionDataSet dataSet = session.executeQueryStatement(sql)) {
+            List<String> columns = dataSet.getColumnNames();
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            double total = 0;
+            while (iterator.next()) {
+                for (int i = 1; i <= columns.size(); i++) {
+                    if ("Time".equalsIgnoreCase(columns.get(i - 1)) || iterator.isNull(i)) {
+                        continue;
+                    }
+                    try {
+                        total += Double.parseDouble(iterator.getString(i));
+                    } catch (NumberFormatException e) {
+                        // 非数值列（如 Timeseries、DataType）
+                    }
+                }
+            }
+            return total;
+        } catch (IoTDBConnectionException | StatementExecutionException e) {
+            System.out.println(sql + " failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%14d %12d %14d %16.0f", timeseries, devices, schemaRegions, memory);
+    }
+}
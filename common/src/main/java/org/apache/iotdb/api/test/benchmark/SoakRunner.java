@@ -0,0 +1,408 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.out;
+
+/**
+ * Title：长时间稳定性（soak）压测
+ * Describe：在 soak_duration_seconds 内以开环限速（Pacer）持续执行写入与查询：concurrent_client_count 个写线程共以 soak_write_rate 次/秒
+ * 向 soak_devices 个设备写入 soak_rows 行的 Tablet，soak_query_threads 个查询线程共以 soak_query_rate 次/秒交替执行
+ * last 查询与最近 soak_rows 行的查询，延迟从预定开始时间计算。
+ * 每 soak_interval_seconds 秒采样一次：区间吞吐与 p50/p99、失败次数，客户端的堆内存、线程数与 GC（JMX），
+ * 以及服务端的序列数与可选的内存（soak_memory_sql，同 onboarding_memory_sql），逐行写入 soak_report_file。
+ * 跳过前 soak_warmup_intervals 个区间后，以接下来 soak_baseline_intervals 个区间的平均写入吞吐与 p99 为基线，
+ * 之后任一区间的写入或查询吞吐下降、p99 上升超过 soak_drift_threshold 时标记为漂移并在控制台告警，结束时输出漂移区间的统计，
+ * 出现漂移时进程以状态码 1 退出。单次写入或查询的异常计入失败次数后继续运行。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.SoakRunner
+ */
+public class SoakRunner {
+    public static final String CSV_HEADER = "timestamp,elapsed_s,write_ops_per_s,write_points_per_s,write_p50_ms,write_p99_ms,"
+            + "query_ops_per_s,query_p50_ms,query_p99_ms,failed,heap_used_mb,heap_committed_mb,threads,gc_count,gc_ms,"
+            + "server_timeseries,server_memory,drift";
+    private static final String DATABASE = "root.soak";
+
+    private final LoadConfig config;
+    private final String executor;
+    private final long durationSeconds;
+    private final double writeRate;
+    private final double queryRate;
+    private final int queryThreads;
+    private final int rows;
+    private final int devices;
+    private final int intervalSeconds;
+    private final int warmupIntervals;
+    private final int baselineIntervals;
+    private final double driftThreshold;
+    private final String memorySql;
+    private final List<IMeasurementSchema> schemaList;
+
+    private final LatencyRecorder writeRecorder = new LatencyRecorder("write");
+    private final LatencyRecorder queryRecorder = new LatencyRecorder("query");
+    private final LongAdder failed = new LongAdder();
+    // 预定开始时间不早于该时间的操作不再执行
+    private volatile long deadlineNanos;
+
+    // 以下字段只由采样线程访问
+    private LatencyHistogram lastWrites = new LatencyHistogram();
+    private LatencyHistogram lastQueries = new LatencyHistogram();
+    private long lastFailed;
+    private long lastGcCount;
+    private long lastGcMillis;
+    private long lastNanos;
+    private int intervals;
+    private double baselineWriteOps;
+    private double baselineQueryOps;
+    private double baselineWriteP99;
+    private double baselineQueryP99;
+    private int driftIntervals;
+    private double firstDriftSeconds = -1;
+
+    public SoakRunner(LoadConfig config, long durationSeconds, double writeRate, double queryRate, int queryThreads, int rows,
+                      int devices, int intervalSeconds, int warmupIntervals, int baselineIntervals, double driftThreshold,
+                      String memorySql) {
+        this.config = config;
+        // soak 只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.durationSeconds = durationSeconds;
+        this.writeRate = writeRate;
+        this.queryRate = queryRate;
+        this.queryThreads = queryRate > 0 ? Math.max(1, queryThreads) : 0;
+        this.rows = Math.max(1, rows);
+        this.devices = Math.max(config.clientCount, devices);
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+        this.warmupIntervals = Math.max(0, warmupIntervals);
+        this.baselineIntervals = Math.max(1, baselineIntervals);
+        this.driftThreshold = driftThreshold;
+        this.memorySql = memorySql;
+        List<TSDataType> tsDataTypes = new ArrayList<>(config.sensorCount);
+        List<TSEncoding> tsEncodings = new ArrayList<>(config.sensorCount);
+        List<CompressionType> compressionTypes = new ArrayList<>(config.sensorCount);
+        SensorSchemas.fill(config, tsDataTypes, tsEncodings, compressionTypes);
+        this.schemaList = new ArrayList<>(config.sensorCount);
+        for (int i = 0; i < config.sensorCount; i++) {
+            schemaList.add(new MeasurementSchema("s_" + i, tsDataTypes.get(i), tsEncodings.get(i), compressionTypes.get(i)));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        SoakRunner runner = new SoakRunner(config, readConfig.getInt("soak_duration_seconds", 3600),
+                readConfig.getDouble("soak_write_rate", 100), readConfig.getDouble("soak_query_rate", 10),
+                readConfig.getInt("soak_query_threads", 2), readConfig.getInt("soak_rows", 100),
+                readConfig.getInt("soak_devices", 1000), readConfig.getInt("soak_interval_seconds", 60),
+                readConfig.getInt("soak_warmup_intervals", 1), readConfig.getInt("soak_baseline_intervals", 3),
+                readConfig.getDouble("soak_drift_threshold", 0.2),
+                readConfig.getValue("soak_memory_sql", readConfig.getValue("onboarding_memory_sql", "")));
+        boolean drifted = runner.run(readConfig.getValue("soak_report_file", "soak-report.csv"));
+        if (readConfig.getBoolean("soak_drop_database", true)) {
+            runner.dropDatabase();
+        }
+        if (drifted) {
+            // 供 CI 等调用方判断稳定性是否达标
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 运行 soak_duration_seconds 秒并写出逐区间报告，出现漂移时返回 true
+     */
+    public boolean run(String reportFile) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        if (writeRate <= 0) {
+            throw new IllegalArgumentException("bad input soak_write_rate: " + writeRate);
+        }
+        dropDatabase();
+        List<Session> sessions = new ArrayList<>();
+        try (Session sampler = LoadWorker.openSession(config.hostList.get(0), config);
+             PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(reportFile), StandardCharsets.UTF_8))) {
+            sampler.createDatabase(DATABASE);
+            // 计时前为每个线程打开连接
+            for (int i = 0; i < config.clientCount + queryThreads; i++) {
+                sessions.add(LoadWorker.openSession(config.hostList.get(i % config.hostList.size()), config));
+            }
+            writer.println(CSV_HEADER);
+            out.println("######## soak " + durationSeconds + "s, write " + writeRate + " tablets/s x " + rows + " rows on "
+                    + config.clientCount + " threads, query " + queryRate + "/s on " + queryThreads + " threads ########");
+
+            Pacer writePacer = new Pacer(writeRate);
+            Pacer queryPacer = queryRate > 0 ? new Pacer(queryRate) : null;
+            List<Callable<Object>> workers = new ArrayList<>();
+            for (int i = 0; i < config.clientCount; i++) {
+                int index = i;
+                Session session = sessions.get(i);
+                workers.add(() -> {
+                    writeLoop(index, session, writePacer);
+                    return null;
+                });
+            }
+            for (int i = 0; i < queryThreads; i++) {
+                int index = i;
+                Session session = sessions.get(config.clientCount + i);
+                workers.add(() -> {
+                    queryLoop(index, session, queryPacer);
+                    return null;
+                });
+            }
+
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "soak-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ExecutorService pool = WorkerExecutors.create(executor, workers.size());
+            lastGcCount = JvmStats.gcCount();
+            lastGcMillis = JvmStats.gcMillis();
+            long startNanos = System.nanoTime();
+            lastNanos = startNanos;
+            deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+            writePacer.start();
+            if (queryPacer != null) {
+                queryPacer.start();
+            }
+            scheduler.scheduleAtFixedRate(() -> sample(sampler, writer, startNanos, false), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+            try {
+                // 循环内已捕获单次操作的异常，这里只会是 Error 等意外退出
+                for (Future<Object> future : pool.invokeAll(workers)) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("soak worker failed", e.getCause());
+                    }
+                }
+            } finally {
+                pool.shutdown();
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                scheduler.shutdown();
+                scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            // 最后一个不完整的区间只统计到截止时间，不参与漂移判断
+            if (deadlineNanos - lastNanos >= TimeUnit.SECONDS.toNanos(1)) {
+                sample(sampler, writer, startNanos, true);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            out.println(LatencyReporter.summary("write", writeRecorder.snapshot(), seconds));
+            out.println(LatencyReporter.summary("query", queryRecorder.snapshot(), seconds));
+        } finally {
+            for (Session session : sessions) {
+                session.close();
+            }
+        }
+        out.println(String.format(Locale.ROOT, "soak finished: %d intervals, failed=%d, drift intervals=%d%s, report written to %s",
+                intervals, failed.sum(), driftIntervals,
+                firstDriftSeconds < 0 ? "" : String.format(Locale.ROOT, " (first at %.0fs)", firstDriftSeconds), reportFile));
+        return driftIntervals > 0;
+    }
+
+    // 写线程负责设备 index, index + threads, ...，按顺序轮流写入，每个设备的时间戳连续递增
+    private void writeLoop(int index, Session session, Pacer pacer) {
+        List<String> owned = new ArrayList<>();
+        for (int device = index; device < devices; device += config.clientCount) {
+            owned.add(DATABASE + ".d_" + device);
+        }
+        long[] nextTimestamps = new long[owned.size()];
+        Arrays.fill(nextTimestamps, config.baseTime);
+        TabletPool pool = TabletPool.local();
+        Tablet tablet = pool.acquire(owned.get(0), schemaList, rows);
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
+        for (long n = 0; ; n++) {
+            long intended = pacer.acquire();
+            if (intended >= deadlineNanos) {
+                pool.release(tablet);
+                return;
+            }
+            int slot = (int) (n % owned.size());
+            tablet.setDeviceId(owned.get(slot));
+            builder.reset();
+            for (int row = 0; row < rows; row++) {
+                builder.addRow(nextTimestamps[slot] + row * config.insertInterval);
+            }
+            for (int column = 0; column < builder.columnCount(); column++) {
+                if (!GenerateValues.fillTabletColumn(builder.type(column), builder.column(column), 0, rows)) {
+                    builder.setNull(column, 0, rows);
+                }
+            }
+            builder.build();
+            nextTimestamps[slot] += rows * config.insertInterval;
+            try {
+                if (config.isAligned) {
+                    session.insertAlignedTablet(tablet);
+                } else {
+                    session.insertTablet(tablet);
+                }
+                writeRecorder.record(System.nanoTime() - intended);
+            } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+                onFailure(tablet.getDeviceId(), e);
+            }
+        }
+    }
+
+    // 查询线程在设备间轮转，交替执行 last 查询与最近 soak_rows 行的查询，每次查询的工作量不随运行时长增长
+    private void queryLoop(int index, Session session, Pacer pacer) {
+        for (long n = index; ; n += queryThreads) {
+            long intended = pacer.acquire();
+            if (intended >= deadlineNanos) {
+                return;
+            }
+            String device = DATABASE + ".d_" + (n / 2 % devices);
+            String sql = n % 2 == 0 ? "select last * from " + device
+                    : "select * from " + device + " order by time desc limit " + rows;
+            try (SessionDataSet dataSet = session.executeQueryStatement(sql)) {
+                SessionDataSet.DataIterator iterator = dataSet.iterator();
+                while (iterator.next()) {
+                    // 只读取结果，不做校验
+                }
+                queryRecorder.record(System.nanoTime() - intended);
+            } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+                onFailure(device, e);
+            }
+        }
+    }
+
+    private void onFailure(String device, Exception e) {
+        failed.increment();
+        // 长时间运行只输出前若干次失败
+        if (failed.sum() <= 10) {
+            out.println(Thread.currentThread().getName() + " " + device + " failed: " + e.getMessage());
+        }
+    }
+
+    // 采样一个区间并写一行报告，只在采样线程（或其停止后的主线程）中调用；tail 为结束时不完整的区间
+    private synchronized void sample(Session session, PrintWriter writer, long startNanos, boolean tail) {
+        // scheduleAtFixedRate 的任务抛出异常后不再执行，单次采样失败只记录，后续区间照常采样
+        try {
+            sampleInterval(session, writer, startNanos, tail);
+        } catch (RuntimeException e) {
+            out.println("soak sample failed: " + e);
+        }
+    }
+
+    private void sampleInterval(Session session, PrintWriter writer, long startNanos, boolean tail) {
+        long now = tail ? Math.min(System.nanoTime(), deadlineNanos) : System.nanoTime();
+        double seconds = (now - lastNanos) / 1e9;
+        LatencyHistogram writes = writeRecorder.snapshot();
+        LatencyHistogram queries = queryRecorder.snapshot();
+        LatencyHistogram intervalWrites = writes.minus(lastWrites);
+        LatencyHistogram intervalQueries = queries.minus(lastQueries);
+        lastWrites = writes;
+        lastQueries = queries;
+        long failedNow = failed.sum();
+        long intervalFailed = failedNow - lastFailed;
+        lastFailed = failedNow;
+        long gcCount = JvmStats.gcCount();
+        long gcMillis = JvmStats.gcMillis();
+        long intervalGcCount = gcCount - lastGcCount;
+        long intervalGcMillis = gcMillis - lastGcMillis;
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+        lastNanos = now;
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long timeseries = ServerStats.count(session, "count timeseries " + DATABASE + ".**");
+        double memory = ServerStats.memory(session, memorySql);
+
+        double writeOps = intervalWrites.getTotalCount() / seconds;
+        double queryOps = intervalQueries.getTotalCount() / seconds;
+        double writeP99 = intervalWrites.getValueAtPercentile(99);
+        double queryP99 = intervalQueries.getValueAtPercentile(99);
+        intervals++;
+        String drift = tail ? "" : detectDrift(writeOps, queryOps, writeP99, queryP99);
+        double elapsed = (now - startNanos) / 1e9;
+        if (!drift.isEmpty()) {
+            driftIntervals++;
+            if (firstDriftSeconds < 0) {
+                firstDriftSeconds = elapsed;
+            }
+            out.println(String.format(Locale.ROOT, "WARN drift at %.0fs: %s", elapsed, drift));
+        }
+        writer.println(String.format(Locale.ROOT, "%d,%.1f,%.1f,%.1f,%s,%s,%.1f,%s,%s,%d,%.1f,%.1f,%d,%d,%d,%d,%.0f,%s",
+                System.currentTimeMillis(), elapsed, writeOps, writeOps * rows * config.sensorCount,
+                LatencyReporter.millis(intervalWrites.getValueAtPercentile(50)), LatencyReporter.millis((long) writeP99),
+                queryOps, LatencyReporter.millis(intervalQueries.getValueAtPercentile(50)), LatencyReporter.millis((long) queryP99),
+                intervalFailed, heap.getUsed() / 1048576.0, heap.getCommitted() / 1048576.0, threads,
+                intervalGcCount, intervalGcMillis, timeseries, memory, drift));
+        writer.flush();
+        out.println(String.format(Locale.ROOT, "%.0fs%s write %.1f/s p99=%sms, query %.1f/s p99=%sms, failed=%d, heap=%.0fMB, threads=%d, gc=%d/%dms",
+                elapsed, tail ? " (tail)" : "", writeOps, LatencyReporter.millis((long) writeP99), queryOps, LatencyReporter.millis((long) queryP99),
+                intervalFailed, heap.getUsed() / 1048576.0, threads, intervalGcCount, intervalGcMillis));
+    }
+
+    /**
+     * 预热区间之后先累计基线，之后与基线比较；返回以空格分隔的漂移项，未漂移返回空串
+     */
+    private String detectDrift(double writeOps, double queryOps, double writeP99, double queryP99) {
+        int index = intervals - warmupIntervals;
+        if (index <= 0) {
+            return "";
+        }
+        if (index <= baselineIntervals) {
+            baselineWriteOps += writeOps / baselineIntervals;
+            baselineQueryOps += queryOps / baselineIntervals;
+            baselineWriteP99 += writeP99 / baselineIntervals;
+            baselineQueryP99 += queryP99 / baselineIntervals;
+            return "";
+        }
+        StringBuilder drift = new StringBuilder();
+        appendDrift(drift, "write_ops", baselineWriteOps, writeOps, false);
+        appendDrift(drift, "write_p99", baselineWriteP99, writeP99, true);
+        appendDrift(drift, "query_ops", baselineQueryOps, queryOps, false);
+        appendDrift(drift, "query_p99", baselineQueryP99, queryP99, true);
+        return drift.toString();
+    }
+
+    // higherIsWorse 为 true 时上升超过阈值算漂移，否则下降超过阈值算漂移
+    private void appendDrift(StringBuilder drift, String name, double baseline, double value, boolean higherIsWorse) {
+        if (baseline <= 0) {
+            return;
+        }
+        double change = value / baseline - 1;
+        if (higherIsWorse ? change > driftThreshold : -change > driftThreshold) {
+            drift.append(drift.length() == 0 ? "" : " ").append(String.format(Locale.ROOT, "%s%+.0f%%", name, change * 100));
+        }
+    }
+
+    /**
+     * 删除 soak 使用的数据库
+     */
+    public void dropDatabase() throws IoTDBConnectionException {
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            session.deleteDatabase(DATABASE);
+        } catch (StatementExecutionException e) {
+            // 数据库不存在
+        }
+    }
+}
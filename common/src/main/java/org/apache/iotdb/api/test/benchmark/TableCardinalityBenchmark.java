@@ -0,0 +1,310 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
+import org.apache.iotdb.api.test.utils.GenerateValues;
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.TabletPool;
+import org.apache.iotdb.isession.ITableSession;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.out;
+
+/**
+ * Title：表模型标签基数压测
+ * Describe：按 table_tag_sweep（TAG 列数）、table_attribute_sweep（ATTRIBUTE 列数）与 table_cardinality_sweep（设备数）的每个组合
+ * 新建一张表（FIELD 列同 concurrent_sensor_* 配置），以 concurrent_client_count 个线程通过 ITableSession.insert(Tablet) 写入：
+ * 每个设备 table_rows_per_device 行，每轮给每个设备写一行，每个 Tablet 包含 table_tablet_rows 个设备。
+ * 第一轮的每一行都会创建设备（create），其余轮写入已存在的设备（steady），两者吞吐之差即为设备创建开销。
+ * 设备的 TAG 值按混合进制展开设备序号，各 TAG 列取值数相同、组合数不少于设备数；ATTRIBUTE 值长度为 table_attribute_length。
+ * 每个组合前重建数据库，并在写入前后执行 table_memory_sql（同 onboarding_memory_sql）采集服务端内存，输出内存增长及每个设备的内存。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.TableCardinalityBenchmark
+ */
+public class TableCardinalityBenchmark {
+    private static final String DATABASE = "table_cardinality";
+
+    private final LoadConfig config;
+    private final String executor;
+    private final int rowsPerDevice;
+    private final int tabletRows;
+    private final int attributeLength;
+    private final String memorySql;
+    private final List<TSDataType> fieldTypes;
+
+    public TableCardinalityBenchmark(LoadConfig config, int rowsPerDevice, int tabletRows, int attributeLength, String memorySql) {
+        this.config = config;
+        // 基数对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.rowsPerDevice = Math.max(1, rowsPerDevice);
+        this.tabletRows = Math.max(1, tabletRows);
+        this.attributeLength = attributeLength;
+        this.memorySql = memorySql;
+        this.fieldTypes = new ArrayList<>(config.sensorCount);
+        SensorSchemas.fill(config, fieldTypes, new ArrayList<TSEncoding>(config.sensorCount),
+                new ArrayList<CompressionType>(config.sensorCount));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<Integer> tagCounts = LoadConfig.parseIntList(readConfig.getValue("table_tag_sweep", "1,3,6"));
+        List<Integer> attributeCounts = LoadConfig.parseIntList(readConfig.getValue("table_attribute_sweep", "0,1,4"));
+        List<Integer> cardinalities = LoadConfig.parseIntList(readConfig.getValue("table_cardinality_sweep", "1000,10000,100000"));
+        TableCardinalityBenchmark benchmark = new TableCardinalityBenchmark(config, readConfig.getInt("table_rows_per_device", 10),
+                readConfig.getInt("table_tablet_rows", 1000), readConfig.getInt("table_attribute_length", 16),
+                readConfig.getValue("table_memory_sql", ""));
+
+        List<CardinalityResult> results = new ArrayList<>();
+        for (int tags : tagCounts) {
+            for (int attributes : attributeCounts) {
+                for (int devices : cardinalities) {
+                    results.add(benchmark.run(tags, attributes, devices));
+                }
+            }
+        }
+        benchmark.dropDatabase();
+
+        out.println(CardinalityResult.HEADER);
+        for (CardinalityResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 在新建的表上写入 devices 个设备，表有 tags 个 TAG 列与 attributes 个 ATTRIBUTE 列
+     */
+    public CardinalityResult run(int tags, int attributes, int devices)
+            throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        if (tags < 1 || attributes < 0 || devices < 1) {
+            throw new IllegalArgumentException("bad input tags=" + tags + " attributes=" + attributes + " devices=" + devices);
+        }
+        String table = "card_" + tags + "_" + attributes;
+        out.println("######## " + table + " devices=" + devices + " rows/device=" + rowsPerDevice + " threads=" + config.clientCount + " ########");
+        List<String> columns = new ArrayList<>();
+        List<TSDataType> types = new ArrayList<>();
+        List<ColumnCategory> categories = new ArrayList<>();
+        for (int i = 0; i < tags; i++) {
+            columns.add("tag_" + i);
+            types.add(TSDataType.STRING);
+            categories.add(ColumnCategory.TAG);
+        }
+        for (int i = 0; i < attributes; i++) {
+            columns.add("attr_" + i);
+            types.add(TSDataType.STRING);
+            categories.add(ColumnCategory.ATTRIBUTE);
+        }
+        for (int i = 0; i < fieldTypes.size(); i++) {
+            columns.add("s_" + i);
+            types.add(fieldTypes.get(i));
+            categories.add(ColumnCategory.FIELD);
+        }
+        dropDatabase();
+        try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+            session.executeNonQueryStatement("create database " + DATABASE);
+            session.executeNonQueryStatement("use " + DATABASE);
+            StringBuilder sql = new StringBuilder("create table ").append(table).append(" (");
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(columns.get(i)).append(' ').append(types.get(i).name())
+                        .append(' ').append(categories.get(i).name());
+            }
+            session.executeNonQueryStatement(sql.append(')').toString());
+        }
+
+        // 计时前为每个线程打开连接
+        List<ITableSession> sessions = new ArrayList<>(config.clientCount);
+        for (int i = 0; i < config.clientCount; i++) {
+            ITableSession session = LoadWorker.openTableSession(config.hostList.get(i % config.hostList.size()), config);
+            session.executeNonQueryStatement("use " + DATABASE);
+            sessions.add(session);
+        }
+        int base = tagBase(devices, tags);
+        LongAdder failed = new LongAdder();
+        ExecutorService pool = WorkerExecutors.create(executor, config.clientCount);
+        WritePhase create;
+        WritePhase steady;
+        double memoryBefore;
+        double memoryAfterCreate;
+        double memoryAfter;
+        try (Session treeSession = LoadWorker.openSession(config.hostList.get(0), config)) {
+            memoryBefore = ServerStats.memory(treeSession, memorySql);
+            create = runPhase(pool, sessions, table, columns, types, categories, tags, attributes, base, devices, 0, 1, failed);
+            memoryAfterCreate = ServerStats.memory(treeSession, memorySql);
+            steady = runPhase(pool, sessions, table, columns, types, categories, tags, attributes, base, devices, 1, rowsPerDevice, failed);
+            memoryAfter = ServerStats.memory(treeSession, memorySql);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            for (ITableSession session : sessions) {
+                session.close();
+            }
+        }
+        out.println(LatencyReporter.summary("create", create.latency, create.seconds()));
+        out.println(LatencyReporter.summary("steady", steady.latency, steady.seconds()));
+        return new CardinalityResult(tags, attributes, devices, base, create, steady,
+                memoryBefore < 0 || memoryAfterCreate < 0 ? -1 : memoryAfterCreate - memoryBefore,
+                memoryBefore < 0 || memoryAfter < 0 ? -1 : memoryAfter - memoryBefore, failed.sum());
+    }
+
+    // 各线程按设备序号分段，写入 [fromRound, toRound) 轮，每轮每个设备一行
+    private WritePhase runPhase(ExecutorService pool, List<ITableSession> sessions, String table, List<String> columns,
+                                 List<TSDataType> types, List<ColumnCategory> categories, int tags, int attributes, int base,
+                                 int devices, int fromRound, int toRound, LongAdder failed) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder(fromRound == 0 ? "create" : "steady");
+        LongAdder rows = new LongAdder();
+        int threads = sessions.size();
+        List<Callable<Object>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            ITableSession session = sessions.get(i);
+            int fromDevice = (int) ((long) devices * i / threads);
+            int toDevice = (int) ((long) devices * (i + 1) / threads);
+            workers.add(() -> {
+                // 开启 tablet_pool 时各轮、各表之间复用本线程的 Tablet，列类别不同的表不会共用
+                TabletPool tablets = TabletPool.local();
+                Tablet tablet = tablets.acquire(table, columns, types, categories, tabletRows);
+                ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
+                try {
+                    for (int round = fromRound; round < toRound; round++) {
+                        long timestamp = config.baseTime + round * config.insertInterval;
+                        for (int from = fromDevice; from < toDevice; from += tabletRows) {
+                            int to = Math.min(from + tabletRows, toDevice);
+                            fill(builder, tags, attributes, base, from, to, timestamp);
+                            long startTime = System.nanoTime();
+                            try {
+                                session.insert(builder.getTablet());
+                                recorder.record(System.nanoTime() - startTime);
+                                rows.add(to - from);
+                            } catch (IoTDBConnectionException | StatementExecutionException e) {
+                                failed.increment();
+                                if (failed.sum() <= 10) {
+                                    out.println(table + " devices [" + from + ", " + to + ") round " + round + " failed: " + e.getMessage());
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    tablets.release(tablet);
+                }
+                return null;
+            });
+        }
+        long startTime = System.nanoTime();
+        pool.invokeAll(workers);
+        return new WritePhase(rows.sum(), System.nanoTime() - startTime, recorder.snapshot());
+    }
+
+    // 设备 [from, to) 各一行：TAG 与 ATTRIBUTE 由设备序号确定，FIELD 列取生成值
+    private void fill(ColumnarTabletBuilder builder, int tags, int attributes, int base, int from, int to, long timestamp) {
+        builder.reset();
+        for (int device = from; device < to; device++) {
+            builder.addRow(timestamp);
+            int rest = device;
+            for (int i = 0; i < tags; i++) {
+                builder.setString(i, "t" + (rest % base));
+                rest /= base;
+            }
+            for (int i = 0; i < attributes; i++) {
+                builder.setString(tags + i, attributeValue(i, device));
+            }
+        }
+        int rows = to - from;
+        for (int column = tags + attributes; column < builder.columnCount(); column++) {
+            if (!GenerateValues.fillTabletColumn(builder.type(column), builder.column(column), 0, rows)) {
+                builder.setNull(column, 0, rows);
+            }
+        }
+        builder.build();
+    }
+
+    // 以列号与设备序号开头、填充到 table_attribute_length 个字符的属性值
+    private String attributeValue(int column, int device) {
+        StringBuilder value = new StringBuilder(Math.max(attributeLength, 16)).append('a').append(column).append('_').append(device);
+        while (value.length() < attributeLength) {
+            value.append('x');
+        }
+        return value.toString();
+    }
+
+    /**
+     * 每个 TAG 列的取值数：tags 列的组合数不少于设备数的最小值
+     */
+    static int tagBase(int devices, int tags) {
+        int base = Math.max(1, (int) Math.floor(Math.pow(devices, 1.0 / tags)));
+        while (Math.pow(base, tags) < devices) {
+            base++;
+        }
+        return base;
+    }
+
+    /**
+     * 删除压测数据库
+     */
+    public void dropDatabase() throws IoTDBConnectionException, StatementExecutionException {
+        try (ITableSession session = LoadWorker.openTableSession(config.hostList.get(0), config)) {
+            session.executeNonQueryStatement("drop database if exists " + DATABASE);
+        }
+    }
+
+    /**
+     * 一个组合的结果，overhead 为 steady 相对 create 的吞吐提升（即首次写入时创建设备的开销）
+     */
+    public static class CardinalityResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%5s %6s %10s %8s %14s %12s %14s %12s %10s %16s %16s %12s %8s",
+                "tags", "attrs", "devices", "values", "create_rows/s", "create_p99", "steady_rows/s", "steady_p99", "overhead",
+                "mem_after_create", "mem_after_all", "mem/device", "failed");
+        public final int tags;
+        public final int attributes;
+        public final int devices;
+        // 每个 TAG 列的取值数
+        public final int tagValues;
+        public final WritePhase create;
+        public final WritePhase steady;
+        // 相对写入前的服务端内存增长，未采集为 -1
+        public final double memoryAfterCreate;
+        public final double memoryAfterAll;
+        public final long failed;
+
+        public CardinalityResult(int tags, int attributes, int devices, int tagValues, WritePhase create, WritePhase steady,
+                                 double memoryAfterCreate, double memoryAfterAll, long failed) {
+            this.tags = tags;
+            this.attributes = attributes;
+            this.devices = devices;
+            this.tagValues = tagValues;
+            this.create = create;
+            this.steady = steady;
+            this.memoryAfterCreate = memoryAfterCreate;
+            this.memoryAfterAll = memoryAfterAll;
+            this.failed = failed;
+        }
+
+        public double overhead() {
+            return create.rowsPerSecond() == 0 || steady.rows == 0 ? -1 : steady.rowsPerSecond() / create.rowsPerSecond() - 1;
+        }
+
+        @Override
+        public String toString() {
+            double overhead = overhead();
+            return String.format(Locale.ROOT, "%5d %6d %10d %8d %14.1f %12s %14.1f %12s %10s %16.0f %16.0f %12.1f %8d",
+                    tags, attributes, devices, tagValues, create.rowsPerSecond(),
+                    LatencyReporter.millis(create.latency.getValueAtPercentile(99)), steady.rowsPerSecond(),
+                    LatencyReporter.millis(steady.latency.getValueAtPercentile(99)),
+                    overhead < 0 ? "-" : String.format(Locale.ROOT, "%.1f%%", overhead * 100),
+                    memoryAfterCreate, memoryAfterAll, memoryAfterCreate < 0 ? -1 : memoryAfterCreate / devices, failed);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+
+import java.util.List;
+
+/**
+ * Title：模板激活 worker
+ * Describe：在已挂载设备模板的数据库下，把领取到的一批设备通过一次 createTimeseriesUsingSchemaTemplate 请求激活，
+ * 模板与挂载由 LoadDriver.prepareTemplate 预先完成
+ */
+public class TemplateActivationWorker extends LoadWorker {
+
+    public TemplateActivationWorker(LoadContext context) {
+        super(context);
+    }
+
+    @Override
+    protected void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException {
+        long startTime = System.nanoTime();
+        session.createTimeseriesUsingSchemaTemplate(devices);
+        recordLatency(startTime);
+    }
+
+    public static String operationName(int batchSize) {
+        return batchSize > 1 ? "createTimeseriesUsingSchemaTemplate[x" + batchSize + "]" : "createTimeseriesUsingSchemaTemplate";
+    }
+}
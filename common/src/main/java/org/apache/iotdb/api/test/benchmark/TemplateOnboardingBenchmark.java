@@ -0,0 +1,152 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.ReadConfig;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.System.out;
+
+/**
+ * Title：设备上线方式对比压测
+ * Describe：对同一批设备（concurrent_* 配置）分别以显式建序列（createAlignedTimeseries/createMultiTimeseries，同 TestConcurrent）
+ * 和挂载模板后批量激活（createTimeseriesUsingSchemaTemplate，批量大小取 onboarding_batch_sweep）两种方式上线，
+ * 每种方式运行前清理数据库，运行后采集设备/序列数、SchemaRegion 数与可选的服务端内存，
+ * 并对抽样设备逐个写入一行测量首次写入延迟，最后输出对比表。
+ * 运行：java -cp common-master-jar-with-dependencies.jar org.apache.iotdb.api.test.benchmark.TemplateOnboardingBenchmark
+ */
+public class TemplateOnboardingBenchmark {
+    private final LoadConfig config;
+    private final String executor;
+    private final String memorySql;
+    private final int firstWriteSamples;
+
+    public TemplateOnboardingBenchmark(LoadConfig config, String memorySql, int firstWriteSamples) {
+        this.config = config;
+        // 上线方式对比只使用一种执行器，both 时取平台线程
+        this.executor = "both".equalsIgnoreCase(config.executor) ? WorkerExecutors.PLATFORM : config.executor;
+        this.memorySql = memorySql;
+        this.firstWriteSamples = firstWriteSamples;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        LoadConfig config = LoadConfig.load();
+        config.print();
+        ReadConfig readConfig = ReadConfig.getOverridableInstance();
+        List<Integer> batchSizes = LoadConfig.parseIntList(readConfig.getValue("onboarding_batch_sweep", "1,10,100,1000"));
+        TemplateOnboardingBenchmark benchmark = new TemplateOnboardingBenchmark(config,
+                readConfig.getValue("onboarding_memory_sql", ""), readConfig.getInt("onboarding_first_write_samples", 100));
+
+        LoadDriver explicit = new LoadDriver(config, LoadDriver.WORKLOAD_SCHEMA);
+        LoadDriver template = new LoadDriver(config, LoadDriver.WORKLOAD_TEMPLATE);
+        out.println("sensorTypes=" + SensorSchemas.describe(explicit.getTsDataTypes()));
+        List<OnboardingResult> results = new ArrayList<>(batchSizes.size() + 1);
+        results.add(benchmark.onboard(explicit, 1));
+        for (int batchSize : batchSizes) {
+            results.add(benchmark.onboard(template, batchSize));
+        }
+        explicit.cleanDatabases();
+        template.dropTemplate();
+
+        out.println(OnboardingResult.HEADER);
+        for (OnboardingResult result : results) {
+            out.println(result);
+        }
+    }
+
+    /**
+     * 清理数据库后以指定方式上线全部设备，返回吞吐、服务端状态与首次写入延迟
+     */
+    public OnboardingResult onboard(LoadDriver driver, int batchSize)
+            throws IOException, InterruptedException, IoTDBConnectionException, StatementExecutionException {
+        String strategy = driver.isTemplate() ? "template" : "explicit";
+        driver.cleanDatabases();
+        if (driver.isTemplate()) {
+            driver.prepareTemplate();
+        }
+        try (Session session = LoadWorker.openSession(config.hostList.get(0), config)) {
+            ServerStats before = ServerStats.capture(session, memorySql);
+            out.println("######## " + driver.operationName(batchSize) + " on " + executor + " threads ########");
+            String reportFile = config.reportFile.replaceFirst("(\\.csv)?$", "-" + strategy + "-batch" + batchSize + ".csv");
+            LoadDriver.RunResult run = driver.run(executor, batchSize, reportFile);
+            ServerStats after = ServerStats.capture(session, memorySql);
+            LatencyHistogram firstWrite = new LatencyHistogram();
+            long firstWriteErrors = measureFirstWrites(session, driver, firstWrite);
+            double memoryDelta = before.memory < 0 || after.memory < 0 ? -1 : after.memory - before.memory;
+            return new OnboardingResult(strategy, run, after, memoryDelta, firstWrite, firstWriteErrors);
+        }
+    }
+
+    // 在设备序号空间内均匀抽样，逐个写入一行（每个设备的第一次写入），返回失败次数
+    private long measureFirstWrites(Session session, LoadDriver driver, LatencyHistogram histogram) {
+        long total = config.totalDevices();
+        long stride = Math.max(1, total / Math.max(1, firstWriteSamples));
+        List<String> measurements = driver.getMeasurements();
+        List<TSDataType> types = driver.getTsDataTypes();
+        SignalValues signalValues = new SignalValues(config.valueSeed, config.signalSpec, measurements, types);
+        long errors = 0;
+        for (long deviceIndex = 0, sample = 0; deviceIndex < total && sample < firstWriteSamples; deviceIndex += stride, sample++) {
+            String device = config.devicePath(deviceIndex);
+            List<Object> values = new ArrayList<>(types.size());
+            for (int i = 0; i < types.size(); i++) {
+                values.add(signalValues.cursor(device, i).next(config.baseTime));
+            }
+            try {
+                long startTime = System.nanoTime();
+                if (config.isAligned) {
+                    session.insertAlignedRecord(device, config.baseTime, measurements, types, values);
+                } else {
+                    session.insertRecord(device, config.baseTime, measurements, types, values);
+                }
+                histogram.recordValue(System.nanoTime() - startTime);
+            } catch (IoTDBConnectionException | StatementExecutionException e) {
+                errors++;
+                out.println("first write " + device + " failed: " + e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 一种上线方式的结果
+     */
+    public static class OnboardingResult {
+        public static final String HEADER = String.format(Locale.ROOT, "%-10s %8s %12s %8s %10s %12s %14s %s %16s %12s %12s %12s %10s",
+                "strategy", "batch", "devices", "failed", "seconds", "devices/s", "timeseries/s", ServerStats.HEADER, "memory_delta",
+                "fw_p50_ms", "fw_p99_ms", "fw_max_ms", "fw_errors");
+        public final String strategy;
+        public final LoadDriver.RunResult run;
+        public final ServerStats server;
+        public final double memoryDelta;
+        public final LatencyHistogram firstWrite;
+        public final long firstWriteErrors;
+
+        public OnboardingResult(String strategy, LoadDriver.RunResult run, ServerStats server, double memoryDelta,
+                                LatencyHistogram firstWrite, long firstWriteErrors) {
+            this.strategy = strategy;
+            this.run = run;
+            this.server = server;
+            this.memoryDelta = memoryDelta;
+            this.firstWrite = firstWrite;
+            this.firstWriteErrors = firstWriteErrors;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = run.seconds();
+            return String.format(Locale.ROOT, "%-10s %8d %12d %8d %10.3f %12.1f %14.1f %s %16.0f %12s %12s %12s %10d",
+                    strategy, run.batchSize, run.devices, run.failed, seconds, run.devices / seconds, run.units / seconds,
+                    server, memoryDelta,
+                    LatencyReporter.millis(firstWrite.getValueAtPercentile(50)),
+                    LatencyReporter.millis(firstWrite.getValueAtPercentile(99)),
+                    LatencyReporter.millis(firstWrite.getMaxValue()), firstWriteErrors);
+        }
+    }
+}
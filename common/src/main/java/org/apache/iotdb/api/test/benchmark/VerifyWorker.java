@@ -0,0 +1,67 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.iotdb.api.test.utils.SeededValueVerifier;
+import org.apache.iotdb.api.test.utils.SignalValues;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.List;
+
+/**
+ * Title：数据校验 worker
+ * Describe：按 insert 负载相同的配置（concurrent_value_seed、concurrent_insert_rows 等）逐设备查询并流式校验写入的数据，
+ * 期望值由 SignalValues（concurrent_signal）重新计算，不保存任何期望数据。存在差异的设备记为失败并输出第一条差异，
+ * 差异是确定的，不进入重试队列；查询异常等其他失败照常重试。
+ */
+public class VerifyWorker extends LoadWorker {
+    private final SeededValueVerifier verifier;
+
+    public VerifyWorker(LoadContext context, List<String> measurements, List<TSDataType> tsDataTypes) {
+        super(context);
+        this.verifier = new SeededValueVerifier(
+                new SignalValues(config.valueSeed, config.signalSpec, measurements, tsDataTypes));
+    }
+
+    /**
+     * 一批设备共用一个开环调度时间，整批校验完后记录一次延迟；存在差异时在整批校验完后抛出 MismatchException
+     */
+    @Override
+    protected void process(Session session, List<String> devices) throws IoTDBConnectionException, StatementExecutionException {
+        long startTime = System.nanoTime();
+        int mismatchedDevices = 0;
+        String firstMismatch = null;
+        for (String device : devices) {
+            SeededValueVerifier.Result result = verifier.verify(session, device, config.baseTime, config.insertInterval, config.insertRows);
+            if (!result.isOk()) {
+                if (mismatchedDevices++ == 0) {
+                    firstMismatch = device + ": " + result.mismatches + " mismatches, first: " + result.firstMismatch;
+                }
+            }
+        }
+        recordLatency(startTime);
+        if (mismatchedDevices > 0) {
+            throw new MismatchException(mismatchedDevices + " of " + devices.size() + " devices mismatched, not retried; " + firstMismatch);
+        }
+    }
+
+    // 数据不一致是确定的，重试只会得到相同的结果
+    @Override
+    protected boolean isRetryable(Exception e) {
+        return !(e instanceof MismatchException);
+    }
+
+    public static String operationName() {
+        return "verify";
+    }
+
+    /**
+     * 查询到的数据与期望值不一致
+     */
+    static class MismatchException extends IllegalStateException {
+        MismatchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Title：写入请求的传输字节数估算
+ * Describe：Session 不暴露连接上的收发字节数，这里按 Thrift TBinaryProtocol 的编码规则估算各写入接口请求体的大小：
+ * 字符串与二进制为 4 字节长度 + 内容，列表为 5 字节头 + 元素，记录的值缓冲区每个值带 1 字节类型，
+ * Tablet 的值缓冲区按列连续存放（TEXT/STRING/BLOB 每个值带 4 字节长度）。不计字段头、帧头与压缩，只用于比较不同接口的相对开销
+ */
+public class WireSize {
+    private static final int LIST_HEADER = 5;
+    private static final int LENGTH = 4;
+
+    private WireSize() {
+    }
+
+    public static long string(String value) {
+        return LENGTH + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static long strings(List<String> values) {
+        long size = LIST_HEADER;
+        for (String value : values) {
+            size += string(value);
+        }
+        return size;
+    }
+
+    // 非字符串值的定长编码大小
+    private static int fixedSize(TSDataType type) {
+        switch (type) {
+            case BOOLEAN:
+                return 1;
+            case INT32:
+            case FLOAT:
+            case DATE:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    private static boolean isBinary(TSDataType type) {
+        return type == TSDataType.TEXT || type == TSDataType.STRING || type == TSDataType.BLOB;
+    }
+
+    private static long binaryValue(Object value) {
+        return LENGTH + (value instanceof Binary ? ((Binary) value).getLength()
+                : value.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * 一行带类型的值（insertRecord 系列），按 1 字节类型 + 值编码
+     */
+    public static long typedValues(List<TSDataType> types, List<Object> values) {
+        long size = LENGTH;
+        for (int i = 0; i < values.size(); i++) {
+            size += 1 + (isBinary(types.get(i)) ? binaryValue(values.get(i)) : fixedSize(types.get(i)));
+        }
+        return size;
+    }
+
+    /**
+     * 一条 insertRecord 请求：设备、物理量名、值缓冲区、时间戳与对齐标志
+     */
+    public static long record(String device, List<String> measurements, List<TSDataType> types, List<Object> values) {
+        return string(device) + strings(measurements) + typedValues(types, values) + 8 + 1;
+    }
+
+    /**
+     * 一条 insertRecords / insertRecordsOfOneDevice 请求，oneDevice 时设备只编码一次
+     */
+    public static long records(List<String> devices, boolean oneDevice, List<List<String>> measurementsList,
+                               List<List<TSDataType>> typesList, List<List<Object>> valuesList) {
+        long size = oneDevice ? string(devices.get(0)) : strings(devices);
+        size += LIST_HEADER + LIST_HEADER + LIST_HEADER + 8L * valuesList.size() + 1;
+        for (int i = 0; i < valuesList.size(); i++) {
+            size += strings(measurementsList.get(i)) + typedValues(typesList.get(i), valuesList.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * 一条 insertStringRecordsOfOneDevice 请求，值全部以字符串编码
+     */
+    public static long stringRecords(String device, List<List<String>> measurementsList, List<List<String>> valuesList) {
+        long size = string(device) + LIST_HEADER + LIST_HEADER + LIST_HEADER + 8L * valuesList.size() + 1;
+        for (int i = 0; i < valuesList.size(); i++) {
+            size += strings(measurementsList.get(i)) + strings(valuesList.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * 一个 Tablet（insertTablet 请求或 insertTablets 中的一项）：设备、物理量名、类型、时间戳与按列的值缓冲区、行数与对齐标志
+     */
+    public static long tablet(Tablet tablet, List<String> measurements, List<TSDataType> types) {
+        int rows = tablet.getRowSize();
+        long size = string(tablet.getDeviceId()) + strings(measurements) + LIST_HEADER + 4L * types.size()
+                + LENGTH + 8L * rows + LENGTH + 4 + 1;
+        Object[] columns = tablet.getValues();
+        for (int column = 0; column < types.size(); column++) {
+            if (isBinary(types.get(column))) {
+                Binary[] values = (Binary[]) columns[column];
+                for (int row = 0; row < rows; row++) {
+                    size += LENGTH + (values[row] == null ? 0 : values[row].getLength());
+                }
+            } else {
+                size += (long) fixedSize(types.get(column)) * rows;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,27 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Title：worker 执行器工厂
+ * Describe：platform 使用固定大小的平台线程池；virtual 为每个 worker 启动一个虚拟线程。
+ * 工程默认按 Java 17 编译，虚拟线程执行器通过反射获取，运行时需 JDK 21+。
+ */
+public class WorkerExecutors {
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    public static ExecutorService create(String mode, int workerCount) {
+        if (PLATFORM.equalsIgnoreCase(mode)) {
+            return Executors.newFixedThreadPool(workerCount);
+        } else if (VIRTUAL.equalsIgnoreCase(mode)) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("virtual 执行器需要 JDK 21+，当前运行时：" + System.getProperty("java.version"), e);
+            }
+        }
+        throw new IllegalArgumentException("bad input executor: " + mode);
+    }
+}
@@ -0,0 +1,25 @@
+package org.apache.iotdb.api.test.benchmark;
+
+/**
+ * Title：一个写入阶段的结果
+ * Describe：写入的行数、阶段的墙钟耗时与每次请求的延迟，用于区分首次写入（创建设备或元数据）与稳定写入
+ */
+public class WritePhase {
+    public final long rows;
+    public final long elapsedNanos;
+    public final LatencyHistogram latency;
+
+    public WritePhase(long rows, long elapsedNanos, LatencyHistogram latency) {
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+    }
+
+    public double seconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows / seconds();
+    }
+}
@@ -0,0 +1,287 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按列填充 Tablet 的构造器，替代逐单元格的 tablet.addValue(measurementName, rowIndex, value)：
+ * 列序号只解析一次，值直接写入 Tablet 的基本类型列数组（不装箱），空值位图在 build 时按列整字节拷贝。
+ * 树模型与表模型（带 ColumnCategory 的 Tablet）均适用。每行的每一列都应赋值或 setNull，未赋值的单元格按非空处理。
+ * 用法：addRow(timestamp) 后用 setXxx(column, value) 填当前行；或 addRows(timestamps) 后用 column(i) 直接按列填充；最后 build()。
+ */
+public class ColumnarTabletBuilder {
+    private final Tablet tablet;
+    private final TSDataType[] types;
+    // 列名到序号的映射，首次按列名查找时创建
+    private Map<String, Integer> columnIndex;
+    private final Object[] columns;
+    private final long[] timestamps;
+    private final int maxRows;
+    // 各列的空值行，首次出现空值时创建
+    private final BitMap[] nulls;
+    private int rows;
+
+    public ColumnarTabletBuilder(Tablet tablet) {
+        this.tablet = tablet;
+        List<IMeasurementSchema> schemas = tablet.getSchemas();
+        this.types = new TSDataType[schemas.size()];
+        for (int i = 0; i < schemas.size(); i++) {
+            types[i] = schemas.get(i).getType();
+        }
+        this.columns = tablet.getValues();
+        this.timestamps = tablet.getTimestamps();
+        this.maxRows = tablet.getMaxRowNumber();
+        this.nulls = new BitMap[types.length];
+    }
+
+    /**
+     * 列名对应的列序号，不存在时抛出 IllegalArgumentException
+     */
+    public int columnIndex(String measurementName) {
+        if (columnIndex == null) {
+            List<IMeasurementSchema> schemas = tablet.getSchemas();
+            columnIndex = new HashMap<>(schemas.size() * 2);
+            for (int i = 0; i < schemas.size(); i++) {
+                columnIndex.put(schemas.get(i).getMeasurementName(), i);
+            }
+        }
+        Integer index = columnIndex.get(measurementName);
+        if (index == null) {
+            throw new IllegalArgumentException("no column " + measurementName + " in tablet " + tablet.getDeviceId());
+        }
+        return index;
+    }
+
+    public int columnCount() {
+        return types.length;
+    }
+
+    public TSDataType type(int column) {
+        return types[column];
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    /**
+     * 追加一行并返回行号，之后的 setXxx 写入该行
+     */
+    public int addRow(long timestamp) {
+        if (rows >= maxRows) {
+            throw new IllegalStateException("tablet " + tablet.getDeviceId() + " is full: " + maxRows + " rows");
+        }
+        timestamps[rows] = timestamp;
+        return rows++;
+    }
+
+    /**
+     * 一次追加多行，之后可通过 column(i) 按列填充 [rowCount() - count, rowCount()) 行
+     */
+    public void addRows(long[] values, int from, int to) {
+        if (rows + (to - from) > maxRows) {
+            throw new IllegalStateException("tablet " + tablet.getDeviceId() + " is full: " + maxRows + " rows");
+        }
+        System.arraycopy(values, from, timestamps, rows, to - from);
+        rows += to - from;
+    }
+
+    /**
+     * 时间戳数组，[0, rowCount()) 行有效
+     */
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    /**
+     * 第 column 列的原始数组（boolean[]、int[]、long[]、float[]、double[]、LocalDate[] 或 Binary[]），用于批量填充
+     */
+    public Object column(int column) {
+        return columns[column];
+    }
+
+    private int current() {
+        if (rows == 0) {
+            throw new IllegalStateException("addRow before setting values");
+        }
+        return rows - 1;
+    }
+
+    public void setBoolean(int column, boolean value) {
+        ((boolean[]) columns[column])[current()] = value;
+    }
+
+    public void setInt(int column, int value) {
+        ((int[]) columns[column])[current()] = value;
+    }
+
+    public void setLong(int column, long value) {
+        ((long[]) columns[column])[current()] = value;
+    }
+
+    public void setFloat(int column, float value) {
+        ((float[]) columns[column])[current()] = value;
+    }
+
+    public void setDouble(int column, double value) {
+        ((double[]) columns[column])[current()] = value;
+    }
+
+    public void setBinary(int column, Binary value) {
+        ((Binary[]) columns[column])[current()] = value;
+    }
+
+    public void setString(int column, String value) {
+        setBinary(column, new Binary(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void setDate(int column, LocalDate value) {
+        ((LocalDate[]) columns[column])[current()] = value;
+    }
+
+    /**
+     * 把当前行的该列标记为空值
+     */
+    public void setNull(int column) {
+        markNull(column, current());
+    }
+
+    private void markNull(int column, int row) {
+        nulls(column).mark(row);
+    }
+
+    private BitMap nulls(int column) {
+        if (nulls[column] == null) {
+            nulls[column] = new BitMap(maxRows);
+        }
+        return nulls[column];
+    }
+
+    /**
+     * 把 [from, to) 行的该列标记为空值：整字节直接填充，只有两端不足一个字节的行逐位标记
+     */
+    public void setNull(int column, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        BitMap bitMap = nulls(column);
+        int firstByte = (from + 7) >>> 3;
+        int endByte = to >>> 3;
+        if (firstByte >= endByte) {
+            for (int row = from; row < to; row++) {
+                bitMap.mark(row);
+            }
+            return;
+        }
+        for (int row = from; row < firstByte << 3; row++) {
+            bitMap.mark(row);
+        }
+        Arrays.fill(bitMap.getByteArray(), firstByte, endByte, (byte) 0xFF);
+        for (int row = endByte << 3; row < to; row++) {
+            bitMap.mark(row);
+        }
+    }
+
+    /**
+     * 按列类型写入装箱后的值，null 写为空值；TEXT/STRING/BLOB 接受 String、byte[] 或 Binary，INT64/TIMESTAMP 接受任意整数
+     */
+    public void setValue(int column, Object value) {
+        if (value == null) {
+            setNull(column);
+            return;
+        }
+        switch (types[column]) {
+            case BOOLEAN:
+                setBoolean(column, (Boolean) value);
+                break;
+            case INT32:
+                setInt(column, (Integer) value);
+                break;
+            case INT64:
+            case TIMESTAMP:
+                setLong(column, ((Number) value).longValue());
+                break;
+            case FLOAT:
+                setFloat(column, (Float) value);
+                break;
+            case DOUBLE:
+                setDouble(column, (Double) value);
+                break;
+            case DATE:
+                setDate(column, (LocalDate) value);
+                break;
+            case TEXT:
+            case STRING:
+            case BLOB:
+                if (value instanceof String) {
+                    setString(column, (String) value);
+                } else if (value instanceof byte[]) {
+                    setBinary(column, new Binary((byte[]) value));
+                } else {
+                    setBinary(column, (Binary) value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported data type: " + types[column]);
+        }
+    }
+
+    /**
+     * 设置行数与空值位图并返回 Tablet
+     */
+    public Tablet build() {
+        if (rows > 0) {
+            // addTimestamp 负责更新行数（并按需初始化位图），之后统一按列重置位图
+            tablet.addTimestamp(rows - 1, timestamps[rows - 1]);
+        }
+        BitMap[] bitMaps = tablet.getBitMaps();
+        if (bitMaps == null) {
+            tablet.initBitMaps();
+            bitMaps = tablet.getBitMaps();
+        }
+        // 两个位图大小相同（均为 maxRows 行），按字节整体拷贝前 rows 行，最后一个字节中 rows 之后的位清零
+        int bytes = (rows + 7) >>> 3;
+        int tailBits = rows & 7;
+        for (int column = 0; column < types.length; column++) {
+            bitMaps[column].reset();
+            if (nulls[column] != null && bytes > 0) {
+                byte[] target = bitMaps[column].getByteArray();
+                System.arraycopy(nulls[column].getByteArray(), 0, target, 0, bytes);
+                if (tailBits != 0) {
+                    target[bytes - 1] &= (byte) ((1 << tailBits) - 1);
+                }
+            }
+        }
+        return tablet;
+    }
+
+    /**
+     * 底层的 Tablet，build 之前其行数与空值位图尚未设置
+     */
+    public Tablet getTablet() {
+        return tablet;
+    }
+
+    /**
+     * 清空已写入的行，以便复用同一个 Tablet
+     */
+    public void reset() {
+        tablet.reset();
+        for (int column = 0; column < types.length; column++) {
+            if (nulls[column] != null) {
+                nulls[column].reset();
+            }
+        }
+        rows = 0;
+    }
+}
@@ -0,0 +1,113 @@
+package org.apache.iotdb.api.test.utils;
+
+import java.util.Arrays;
+
+/**
+ * 乱序/迟到时间戳生成器：一条序列的第 k 个点时间戳为 startTime + k * interval，按“到达顺序”输出。
+ * 每个点以 disorderRatio 的概率迟到，迟到的点在其后 1~maxLateness/interval 个点之后才到达；
+ * 每个点另以 duplicateRatio 的概率紧随其后重复到达一次（时间戳相同）。
+ * 点是否迟到、迟到多少只取决于 (种子, 序列键, k)，因此可以只生成到达位置在某个区间内的点，
+ * 用于把一条序列分多轮写入（每轮之间 flush 即可让迟到的点落入乱序空间）。每个时间戳至少输出一次，不会丢点。
+ */
+public class DisorderedTimestamps {
+    private final long startTime;
+    private final long interval;
+    private final double disorderRatio;
+    // 最大迟到点数
+    private final long maxDelay;
+    private final double duplicateRatio;
+    private final SeededValues hashing;
+
+    public DisorderedTimestamps(long startTime, long interval, double disorderRatio, long maxLateness, double duplicateRatio,
+                                long seed) {
+        if (interval <= 0 || disorderRatio < 0 || disorderRatio > 1 || duplicateRatio < 0 || duplicateRatio > 1) {
+            throw new IllegalArgumentException("bad input disorder: interval=" + interval + ", ratio=" + disorderRatio
+                    + ", duplicate=" + duplicateRatio);
+        }
+        this.startTime = startTime;
+        this.interval = interval;
+        this.disorderRatio = disorderRatio;
+        this.maxDelay = Math.max(1, maxLateness / interval);
+        this.duplicateRatio = duplicateRatio;
+        this.hashing = new SeededValues(seed);
+    }
+
+    /**
+     * 是否严格顺序且无重复
+     */
+    public boolean isSequential() {
+        return disorderRatio == 0 && duplicateRatio == 0;
+    }
+
+    /**
+     * timestamps 对前 count 个点最多输出的时间戳个数（每个点至多重复一次）
+     */
+    public long maxTimestamps(long count) {
+        return duplicateRatio > 0 ? 2 * count : count;
+    }
+
+    // [0, 1) 的均匀随机数
+    private static double uniform(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    // 第 k 个点的到达位置
+    private long arrival(long key, long k) {
+        if (disorderRatio == 0) {
+            return k;
+        }
+        long bits = hashing.bits(key, k);
+        if (uniform(bits) >= disorderRatio) {
+            return k;
+        }
+        return k + 1 + Math.floorMod(bits, maxDelay);
+    }
+
+    private boolean duplicated(long key, long k) {
+        return duplicateRatio > 0 && uniform(hashing.bits(~key, k)) < duplicateRatio;
+    }
+
+    /**
+     * 序列（key 由 SeededValues.key 计算）前 count 个点中，到达位置在 [fromArrival, toArrival) 的点的时间戳，按到达顺序排列
+     */
+    public long[] timestamps(long key, long count, long fromArrival, long toArrival) {
+        long first = isSequential() ? fromArrival : Math.max(0, fromArrival - maxDelay);
+        long end = Math.min(count, toArrival);
+        if (end <= first) {
+            return new long[0];
+        }
+        // 高位为相对到达位置、低位为相对序号，排序后即为到达顺序（同一位置按序号）
+        long[] entries = new long[(int) (end - first)];
+        int size = 0;
+        int duplicates = 0;
+        for (long k = first; k < end; k++) {
+            long arrival = arrival(key, k);
+            if (arrival >= fromArrival && arrival < toArrival) {
+                entries[size++] = ((arrival - first) << 31) | (k - first);
+                if (duplicated(key, k)) {
+                    duplicates++;
+                }
+            }
+        }
+        Arrays.sort(entries, 0, size);
+        long[] timestamps = new long[size + duplicates];
+        int row = 0;
+        for (int i = 0; i < size; i++) {
+            long k = first + (entries[i] & 0x7FFFFFFFL);
+            timestamps[row++] = startTime + k * interval;
+            if (duplicates > 0 && duplicated(key, k)) {
+                timestamps[row++] = startTime + k * interval;
+            }
+        }
+        return timestamps;
+    }
+
+    /**
+     * 把 count 个点按到达顺序分为 rounds 轮，返回第 round 轮（从 0 开始）的时间戳；最后一轮包含所有剩余的迟到点
+     */
+    public long[] round(long key, long count, int round, int rounds) {
+        long chunk = (count + rounds - 1) / rounds;
+        long to = round == rounds - 1 ? Long.MAX_VALUE : (round + 1) * chunk;
+        return timestamps(key, count, round * chunk, to);
+    }
+}
@@ -3,22 +3,78 @@ package org.apache.iotdb.api.test.utils;
 import com.github.javafaker.Faker;
 import com.github.javafaker.service.FakeValuesService;
 import com.github.javafaker.service.RandomService;
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.utils.Binary;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
  * 用于构造不同类型的数据
+ * 数据来源由 config.properties 中 value_generator 决定：faker（默认，javafaker）或 fast（FastValueGenerator，
+ * 基本类型无装箱、字符串取自预生成的池），写入压测等热点路径建议使用 fast。
+ * 配置 string_dictionary 后，字符串类取值（getStringValue、getBloB、getChinese 与 TEXT/STRING/BLOB 单元格）
+ * 改为从 StringDictionary 中按配置的基数与分布抽取，与 value_generator 无关
  */
 public class GenerateValues {
+    public static final String GENERATOR_FAKER = "faker";
+    public static final String GENERATOR_FAST = "fast";
+    private static volatile boolean fast = GENERATOR_FAST.equalsIgnoreCase(readGenerator());
+    // 为 null 时不使用字典
+    private static volatile StringDictionary dictionary = readDictionary();
+
     // javafaker 的 Faker 非线程安全：在 @DataProvider(parallel=true) 下并发调用可能抛异常或产生重复值。
     // 改为 ThreadLocal，每个线程持有独立实例，既线程安全又保留随机性。
     private static final ThreadLocal<Faker> FAKER = ThreadLocal.withInitial(Faker::new);
     private static final ThreadLocal<Faker> FAKER_CHINESE = ThreadLocal.withInitial(() -> new Faker(new Locale("zh-CN")));
 
+    private static String readGenerator() {
+        try {
+            return ReadConfig.getInstance().getValue("value_generator", GENERATOR_FAKER);
+        } catch (IOException e) {
+            return GENERATOR_FAKER;
+        }
+    }
+
+    private static StringDictionary readDictionary() {
+        String spec;
+        try {
+            spec = ReadConfig.getInstance().getValue("string_dictionary", "");
+        } catch (IOException e) {
+            return null;
+        }
+        return spec.trim().isEmpty() ? null : StringDictionary.parse(spec);
+    }
+
+    /**
+     * 设置字符串字典，null 表示恢复 value_generator 的字符串取值
+     */
+    public static void setStringDictionary(StringDictionary stringDictionary) {
+        dictionary = stringDictionary;
+    }
+
+    public static StringDictionary getStringDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 切换数据来源：faker 或 fast
+     */
+    public static void setGenerator(String generator) {
+        if (!GENERATOR_FAKER.equalsIgnoreCase(generator) && !GENERATOR_FAST.equalsIgnoreCase(generator)) {
+            throw new IllegalArgumentException("bad input value generator: " + generator);
+        }
+        fast = GENERATOR_FAST.equalsIgnoreCase(generator);
+    }
+
+    public static boolean isFast() {
+        return fast;
+    }
+
     private static Faker faker() {
         return FAKER.get();
     }
@@ -28,42 +84,77 @@ public class GenerateValues {
     }
 
     public static int getInt() {
+        if (fast) {
+            return FastValueGenerator.getInt();
+        }
         return faker().number().randomDigit();
     }
 
     public static long getLong(int maxNumberOfDecimals) {
+        if (fast) {
+            return FastValueGenerator.getLong(maxNumberOfDecimals);
+        }
         return faker().number().randomNumber(maxNumberOfDecimals, false);
     }
 
     public static float getFloat(int maxNumberOfDecimals, int min, int max) {
+        if (fast) {
+            return FastValueGenerator.getFloat(maxNumberOfDecimals, min, max);
+        }
         return (float) faker().number().randomDouble(maxNumberOfDecimals, min, max);
     }
 
     public static double getDouble(int maxNumberOfDecimals, int min, int max) {
+        if (fast) {
+            return FastValueGenerator.getDouble(maxNumberOfDecimals, min, max);
+        }
         return faker().number().randomDouble(maxNumberOfDecimals, min, max);
     }
 
     public static boolean getBoolean() {
+        if (fast) {
+            return FastValueGenerator.getBoolean();
+        }
         return faker().bool().bool();
     }
 
     public static String getStringValue() {
+        StringDictionary stringDictionary = dictionary;
+        if (stringDictionary != null) {
+            return stringDictionary.nextString();
+        }
+        if (fast) {
+            return FastValueGenerator.getStringValue();
+        }
         String zw = faker().name().nameWithMiddle();
         String alphanumeric = faker().bothify("???????####");
         return zw + alphanumeric;
     }
 
     public static long getTimeStamp(int maxNumberOfDecimals) {
+        if (fast) {
+            return FastValueGenerator.getTimeStamp(maxNumberOfDecimals);
+        }
         return faker().number().randomNumber(maxNumberOfDecimals, false);
     }
 
     public static Binary getBloB() {
+        StringDictionary stringDictionary = dictionary;
+        if (stringDictionary != null) {
+            return stringDictionary.nextBinary();
+        }
+        if (fast) {
+            return FastValueGenerator.getBloB();
+        }
         String zw = faker().name().nameWithMiddle();
         String alphanumeric = faker().bothify("???????####");
         return new Binary((zw+alphanumeric).getBytes(StandardCharsets.UTF_8));
     }
 
     public static LocalDate getDateValue() {
+        if (fast) {
+            return FastValueGenerator.getDateValue();
+        }
         // 注意：javafaker 的 numberBetween 上界是排他的，因此用 +1 保证能取到上界值；
         // 同时先确定年、月，再按该月实际天数选 day，避免生成 2 月 30 日、4 月 31 日等非法日期导致偶发失败。
         int year = faker().number().numberBetween(1000, 9999 + 1);
@@ -74,23 +165,154 @@ public class GenerateValues {
     }
 
     public static String getString(int max) {
+        if (fast) {
+            return FastValueGenerator.getString(max);
+        }
         FakeValuesService fakeValuesService = new FakeValuesService(
                 new Locale("en-GB"), new RandomService());
         return fakeValuesService.regexify("[a-zA-Z_0-9]{" + max + "}");
     }
 
     public static String getCombinedCode() {
+        if (fast) {
+            return FastValueGenerator.getCombinedCode();
+        }
         return faker().code().asin();
     }
 
     public static String getNumberCode() {
+        if (fast) {
+            return FastValueGenerator.getNumberCode();
+        }
         return faker().code().ean13();
     }
 
     public static String getChinese() {
+        StringDictionary stringDictionary = dictionary;
+        if (stringDictionary != null) {
+            return stringDictionary.nextString();
+        }
+        if (fast) {
+            return FastValueGenerator.getChinese();
+        }
         return fakerChinese().address().city();
     }
 
+    /**
+     * 按 BaseTestSuiteTreeModel.insertTabletMulti 使用的取值范围生成一个 Tablet 单元格的值，不支持的类型返回 null
+     */
+    public static Object getTabletValue(TSDataType type) {
+        StringDictionary stringDictionary = dictionary;
+        switch (type) {
+            case BOOLEAN:
+                return getBoolean();
+            case INT32:
+                return getInt();
+            case INT64:
+            case TIMESTAMP:
+                return getLong(10);
+            case FLOAT:
+                return getFloat(2, 100, 200);
+            case DOUBLE:
+                return getDouble(2, 500, 1000);
+            case TEXT:
+            case STRING:
+                // 字典与 fast 模式直接返回预生成的 Binary，省去每个单元格的字符串编码
+                if (stringDictionary != null) {
+                    return stringDictionary.nextBinary();
+                }
+                return fast ? FastValueGenerator.getChineseBinary() : getChinese();
+            case DATE:
+                return LocalDate.of(1970, 1, 1);
+            case BLOB:
+                if (stringDictionary != null) {
+                    return stringDictionary.nextBinary();
+                }
+                return fast ? FastValueGenerator.getChineseBinary() : new Binary(getChinese(), Charset.defaultCharset());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 以 getTabletValue 相同的取值直接填充 Tablet 某一列数组的 [from, to) 行（数值列不装箱），
+     * fast 模式且未配置字典时整列交给 FastValueGenerator.fillColumn。不支持的类型返回 false，调用方应将其置为空值
+     */
+    public static boolean fillTabletColumn(TSDataType type, Object column, int from, int to) {
+        StringDictionary stringDictionary = dictionary;
+        switch (type) {
+            case BOOLEAN:
+            case INT32:
+            case INT64:
+            case TIMESTAMP:
+            case FLOAT:
+            case DOUBLE:
+                break;
+            case TEXT:
+            case STRING:
+            case BLOB:
+                if (stringDictionary != null) {
+                    Binary[] binaries = (Binary[]) column;
+                    for (int i = from; i < to; i++) {
+                        binaries[i] = stringDictionary.nextBinary();
+                    }
+                    return true;
+                }
+                break;
+            case DATE:
+                // 与 getTabletValue 一致，日期列取固定值
+                Arrays.fill((LocalDate[]) column, from, to, LocalDate.of(1970, 1, 1));
+                return true;
+            default:
+                return false;
+        }
+        if (fast) {
+            FastValueGenerator.fillColumn(type, column, from, to);
+            return true;
+        }
+        switch (type) {
+            case BOOLEAN:
+                boolean[] booleans = (boolean[]) column;
+                for (int i = from; i < to; i++) {
+                    booleans[i] = getBoolean();
+                }
+                break;
+            case INT32:
+                int[] ints = (int[]) column;
+                for (int i = from; i < to; i++) {
+                    ints[i] = getInt();
+                }
+                break;
+            case INT64:
+            case TIMESTAMP:
+                long[] longs = (long[]) column;
+                for (int i = from; i < to; i++) {
+                    longs[i] = getLong(10);
+                }
+                break;
+            case FLOAT:
+                float[] floats = (float[]) column;
+                for (int i = from; i < to; i++) {
+                    floats[i] = getFloat(2, 100, 200);
+                }
+                break;
+            case DOUBLE:
+                double[] doubles = (double[]) column;
+                for (int i = from; i < to; i++) {
+                    doubles[i] = getDouble(2, 500, 1000);
+                }
+                break;
+            default:
+                // TEXT/STRING/BLOB
+                Binary[] binaries = (Binary[]) column;
+                for (int i = from; i < to; i++) {
+                    binaries[i] = new Binary(getChinese(), Charset.defaultCharset());
+                }
+                break;
+        }
+        return true;
+    }
+
     public static void main(String[] args) {
         System.out.println(Integer.MAX_VALUE);
 
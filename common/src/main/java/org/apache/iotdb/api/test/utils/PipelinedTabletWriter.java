@@ -0,0 +1,236 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 流水线方式写入单个设备的大量数据：把总行数切成 chunkRows 行的 Tablet，生产线程构建第 N+1 块的同时发送线程写入第 N 块，
+ * 避免一次构建超大 Tablet（超出合理的帧大小）以及 RPC 期间客户端 CPU 空闲。
+ * 生产线程与额外的发送线程随写入器创建、在多次 write 之间复用，用完须 close。
+ * 已构建、待发送的块最多 maxInFlight 个；块的 Tablet 由生产线程从它的 TabletPool 借出，发送完成后交回生产线程归还，
+ * 因此同时存在的 Tablet 不超过 maxInFlight + senders + 1 个。
+ * Session 不是线程安全的，写入 Session 时只能使用 1 个发送线程（即调用线程）；SessionPool 可使用多个发送线程并发写入。
+ */
+public class PipelinedTabletWriter implements AutoCloseable {
+    private static final AtomicInteger WRITER_ID = new AtomicInteger();
+
+    private final int chunkRows;
+    private final int maxInFlight;
+    private final int senders;
+    private final ExecutorService producer;
+    private final ExecutorService extraSenders;
+    // 发送完成、等待生产线程归还 TabletPool 的 Tablet
+    private final ConcurrentLinkedQueue<Tablet> sent = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 写入一个 Tablet 的方式
+     */
+    public interface TabletSink {
+        void insert(Tablet tablet) throws IoTDBConnectionException, StatementExecutionException;
+    }
+
+    /**
+     * 填充总数据中从第 fromRow 行开始的 rows 行：先 addRow / addRows 追加时间戳，再按列赋值，不需要调用 build
+     */
+    public interface ChunkFiller {
+        void fill(ColumnarTabletBuilder builder, long fromRow, int rows);
+    }
+
+    public static TabletSink sink(Session session, boolean isAligned) {
+        return isAligned ? session::insertAlignedTablet : session::insertTablet;
+    }
+
+    public static TabletSink sink(SessionPool sessionPool, boolean isAligned) {
+        return isAligned ? sessionPool::insertAlignedTablet : sessionPool::insertTablet;
+    }
+
+    /**
+     * senders 个线程并发发送（含调用线程），写入 Session 的 sink 时 senders 必须为 1
+     */
+    public PipelinedTabletWriter(int chunkRows, int maxInFlight, int senders) {
+        if (chunkRows <= 0 || maxInFlight <= 0 || senders <= 0) {
+            throw new IllegalArgumentException("chunkRows, maxInFlight and senders must be positive: "
+                    + chunkRows + ", " + maxInFlight + ", " + senders);
+        }
+        this.chunkRows = chunkRows;
+        this.maxInFlight = maxInFlight;
+        this.senders = senders;
+        int id = WRITER_ID.incrementAndGet();
+        this.producer = Executors.newSingleThreadExecutor(r -> daemon(r, "tablet-producer-" + id));
+        AtomicInteger sender = new AtomicInteger();
+        this.extraSenders = senders == 1 ? null
+                : Executors.newFixedThreadPool(senders - 1, r -> daemon(r, "tablet-sender-" + id + "-" + sender.incrementAndGet()));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * 分块写入 device 的 totalRows 行，全部块发送完成后返回。任一块写入失败时停止生产，等待已开始的写入结束后抛出第一个异常。
+     * 同一写入器的多次调用依次执行
+     */
+    public synchronized void write(TabletSink sink, String device, List<IMeasurementSchema> schemas, long totalRows,
+                                   ChunkFiller filler) throws IoTDBConnectionException, StatementExecutionException {
+        // 队列中为已 build 的块，end 为生产结束标记，每个发送线程收到一个
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(maxInFlight);
+        Object end = new Object();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Future<?> produced = producer.submit(() -> {
+            // TabletPool 按线程隔离：借出与归还都在生产线程上进行
+            TabletPool pool = TabletPool.local();
+            try {
+                for (long from = 0; from < totalRows && failure.get() == null; from += chunkRows) {
+                    int rows = (int) Math.min(chunkRows, totalRows - from);
+                    for (Tablet tablet = sent.poll(); tablet != null; tablet = sent.poll()) {
+                        pool.release(tablet);
+                    }
+                    ColumnarTabletBuilder builder = new ColumnarTabletBuilder(pool.acquire(device, schemas, chunkRows));
+                    filler.fill(builder, from, rows);
+                    queue.put(builder.build());
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                // 发送线程总会取到结束标记才退出，因此 put 不会永久阻塞
+                for (int i = 0; i < senders; i++) {
+                    putUninterruptibly(queue, end);
+                }
+            }
+        });
+
+        List<Future<?>> sending = new ArrayList<>(senders - 1);
+        Runnable send = () -> drain(sink, queue, end, failure);
+        for (int i = 1; i < senders; i++) {
+            sending.add(extraSenders.submit(send));
+        }
+        send.run();
+        awaitUninterruptibly(produced);
+        for (Future<?> sender : sending) {
+            awaitUninterruptibly(sender);
+        }
+
+        Throwable e = failure.get();
+        if (e instanceof IoTDBConnectionException) {
+            throw (IoTDBConnectionException) e;
+        } else if (e instanceof StatementExecutionException) {
+            throw (StatementExecutionException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new IllegalStateException("pipelined insert of " + device + " failed", e);
+        }
+    }
+
+    // 失败后不再发送，但继续取出队列中的块直到结束标记，使生产线程不会阻塞
+    private void drain(TabletSink sink, BlockingQueue<Object> queue, Object end, AtomicReference<Throwable> failure) {
+        while (true) {
+            Object chunk = takeUninterruptibly(queue);
+            if (chunk == end) {
+                return;
+            }
+            Tablet tablet = (Tablet) chunk;
+            if (failure.get() == null) {
+                try {
+                    sink.insert(tablet);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+            sent.offer(tablet);
+        }
+    }
+
+    /**
+     * 等待正在进行的 write 结束后停止生产与发送线程，之后不得再调用 write
+     */
+    @Override
+    public synchronized void close() {
+        producer.shutdownNow();
+        if (extraSenders != null) {
+            extraSenders.shutdownNow();
+        }
+        sent.clear();
+    }
+
+    private static Object takeUninterruptibly(BlockingQueue<Object> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Object> queue, Object value) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    queue.put(value);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 任务内部已捕获全部异常，这里只等待结束
+    private static void awaitUninterruptibly(Future<?> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    return;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
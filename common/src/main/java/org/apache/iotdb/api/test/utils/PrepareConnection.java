@@ -81,45 +81,56 @@ public class PrepareConnection {
      * 从sessionPool中获取Session对象（树模型）
      */
     public static SessionPool getSessionPoolTreeModel() {
-        SessionPool sessionPool = null;
+        return getSessionPoolTreeModel(0);
+    }
+
+    /**
+     * 同上，maxSize 大于 0 时指定连接池的最大连接数，否则使用客户端默认值
+     */
+    public static SessionPool getSessionPoolTreeModel(int maxSize) {
+        SessionPool.Builder builder = new SessionPool.Builder();
         if (config.getValue("is_cluster").equals("true")) {
             String host_nodes_str = config.getValue("host_nodes");
-            sessionPool = new SessionPool.Builder()
-                    .nodeUrls(Arrays.asList(host_nodes_str.split(",")))
-                    .user(config.getValue("user"))
-                    .password(config.getValue("password"))
-                    .build();
+            builder.nodeUrls(Arrays.asList(host_nodes_str.split(",")));
         } else {
-            sessionPool = new SessionPool.Builder()
-                    .host(config.getValue("host"))
-                    .port(Integer.parseInt(config.getValue("port")))
-                    .user(config.getValue("user"))
-                    .password(config.getValue("password"))
-                    .build();
+            builder.host(config.getValue("host"))
+                    .port(Integer.parseInt(config.getValue("port")));
+        }
+        builder.user(config.getValue("user"))
+                .password(config.getValue("password"));
+        if (maxSize > 0) {
+            builder.maxSize(maxSize);
         }
-        return sessionPool;
+        return builder.build();
     }
 
     /**
      * 从sessionPool中获取Session对象（表模型）
      */
     public static ITableSessionPool getSessionPoolTableModel() throws IoTDBConnectionException {
-        ITableSessionPool sessionPool = null;
+        return getSessionPoolTableModel(0, null);
+    }
+
+    /**
+     * 同上，maxSize 大于 0 时指定连接池的最大连接数，database 非空时池中的连接默认使用该数据库
+     */
+    public static ITableSessionPool getSessionPoolTableModel(int maxSize, String database) throws IoTDBConnectionException {
+        TableSessionPoolBuilder builder = new TableSessionPoolBuilder();
         // 判断是否是集群
         if (config.getValue("is_cluster").equals("true")) {
             String host_nodes_str = config.getValue("host_nodes");
-            sessionPool = new TableSessionPoolBuilder()
-                    .nodeUrls(Arrays.asList(host_nodes_str.split(",")))
-                    .user(config.getValue("user"))
-                    .password(config.getValue("password"))
-                    .build();
+            builder.nodeUrls(Arrays.asList(host_nodes_str.split(",")));
         } else {
-            sessionPool = new TableSessionPoolBuilder()
-                    .nodeUrls(Collections.singletonList(config.getValue("url")))
-                    .user(config.getValue("user"))
-                    .password(config.getValue("password"))
-                    .build();
+            builder.nodeUrls(Collections.singletonList(config.getValue("url")));
+        }
+        builder.user(config.getValue("user"))
+                .password(config.getValue("password"));
+        if (maxSize > 0) {
+            builder.maxSize(maxSize);
+        }
+        if (database != null && !database.isEmpty()) {
+            builder.database(database);
         }
-        return sessionPool;
+        return builder.build();
     }
 }
@@ -0,0 +1,85 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.TSDataType;
+
+import static org.apache.tsfile.encrypt.EncryptUtils.hexStringToByteArray;
+
+/**
+ * 查询结果与期望值的比较规则，从 BaseTestSuiteTreeModel.checkQueryResult 中抽出，便于单独做微基准：
+ * 数值类型按 Double 比较，BOOLEAN/TEXT/STRING 按字符串比较，BLOB 先把 0x 开头的十六进制结果解码为字符串，
+ * DATE 与去掉 "-" 的期望值比较。期望值只解析一次，可对多行结果重复使用。
+ */
+public class QueryResultMatcher {
+    private final TSDataType type;
+    private final Object expectValue;
+    private final Double expectNumber;
+    private final String expectText;
+
+    public QueryResultMatcher(TSDataType type, Object expectValue) {
+        this.type = type;
+        this.expectValue = expectValue;
+        switch (type) {
+            case INT32:
+            case INT64:
+            case FLOAT:
+            case DOUBLE:
+            case TIMESTAMP:
+                this.expectNumber = Double.valueOf(expectValue.toString());
+                this.expectText = null;
+                break;
+            case DATE:
+                this.expectNumber = null;
+                this.expectText = expectValue.toString().replace("-", "");
+                break;
+            default:
+                this.expectNumber = null;
+                this.expectText = expectValue.toString();
+                break;
+        }
+    }
+
+    /**
+     * 是否支持该类型的比较，不支持时 checkQueryResult 不校验任何行
+     */
+    public static boolean supports(TSDataType type) {
+        switch (type) {
+            case INT32:
+            case INT64:
+            case FLOAT:
+            case DOUBLE:
+            case TIMESTAMP:
+            case BOOLEAN:
+            case TEXT:
+            case STRING:
+            case BLOB:
+            case DATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 查询返回的字段文本转换为用于比较与输出的值，目前只有 BLOB 需要解码
+     */
+    public String decode(String actual) {
+        if (type == TSDataType.BLOB) {
+            return new String(hexStringToByteArray(actual.substring(2)));
+        }
+        return actual;
+    }
+
+    /**
+     * 查询返回的字段文本是否等于期望值
+     */
+    public boolean matches(String actual) {
+        if (expectNumber != null) {
+            return Double.valueOf(actual).equals(expectNumber);
+        }
+        return decode(actual).equals(expectText);
+    }
+
+    public Object getExpectValue() {
+        return expectValue;
+    }
+}
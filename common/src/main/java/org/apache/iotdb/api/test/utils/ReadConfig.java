@@ -12,10 +12,13 @@ public class ReadConfig {
 //    private static final String configPath = "resources/config.properties";
 //    private final String configPath = System.getProperty("user.dir") + "/conf/application.properties";
     private static volatile ReadConfig config;
+    private static volatile ReadConfig overridableConfig;
 
     private Properties properties = null;
+    // 为 true 时同名的 JVM 系统属性优先于 config.properties
+    private final boolean systemOverrides;
 
-    /*
+    /**
      * 单例获取实例（加锁双重检查，避免多线程首次访问时创建多个实例或读到半初始化的 properties）
      */
     public static synchronized ReadConfig getInstance() throws IOException {
@@ -26,15 +29,58 @@ public class ReadConfig {
         return config;
     }
 
+    /**
+     * 压测入口（LoadConfig 与 benchmark 包中各压测的 main）使用的实例：同名的 JVM 系统属性（-Dkey=value）优先于 config.properties，
+     * 便于压测时不重新打包即可调整参数。功能测试通过 getInstance 读取，不受系统属性影响
+     */
+    public static synchronized ReadConfig getOverridableInstance() throws IOException {
+        if (null == overridableConfig) {
+            overridableConfig = new ReadConfig(getInstance().properties, true);
+        }
+        return overridableConfig;
+    }
+
     private ReadConfig() throws IOException {
         properties = new Properties();
+        systemOverrides = false;
         // 加载完成后立即关闭流，避免 InputStream 泄漏。
         try (InputStream in = ReadConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
             properties.load(in);
         }
     }
+
+    private ReadConfig(Properties properties, boolean systemOverrides) {
+        this.properties = properties;
+        this.systemOverrides = systemOverrides;
+    }
+
+    /**
+     * 读取配置项，getOverridableInstance 返回的实例优先读取同名的 JVM 系统属性
+     */
     public String getValue(String key) {
-        return properties.getProperty(key);
+        String override = systemOverrides ? System.getProperty(key) : null;
+        return override != null ? override : properties.getProperty(key);
+    }
+
+    public String getValue(String key, String defaultValue) {
+        String value = getValue(key);
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return Integer.parseInt(getValue(key, String.valueOf(defaultValue)));
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return Long.parseLong(getValue(key, String.valueOf(defaultValue)));
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return Double.parseDouble(getValue(key, String.valueOf(defaultValue)));
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getValue(key, String.valueOf(defaultValue)));
     }
     public void close() throws IOException {
         // 配置流在构造时即已关闭，这里保留空实现以兼容历史调用方。
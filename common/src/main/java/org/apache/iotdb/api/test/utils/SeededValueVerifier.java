@@ -0,0 +1,127 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+
+import java.util.List;
+
+/**
+ * 流式校验由 SignalValues（默认即 SeededValues 的均匀随机值）写入的数据：逐行读取查询结果，按写入时相同的顺序
+ * 推进每列的生成游标重新计算期望值并比较，不在内存中保存期望数据，客户端内存占用与数据量无关。时间戳按 startTime + k * interval 的规律校验，缺行与多行都会被发现。
+ */
+public class SeededValueVerifier {
+    // 浮点编码（如 TS_2DIFF、RLE）按两位小数存储，比较时允许的相对误差
+    private static final double FLOAT_TOLERANCE = 1e-6;
+
+    private final SignalValues values;
+    private final List<String> measurements;
+    private final List<TSDataType> tsDataTypes;
+    private final String selectClause;
+
+    public SeededValueVerifier(SignalValues values) {
+        this.values = values;
+        this.measurements = values.getMeasurements();
+        this.tsDataTypes = values.getTsDataTypes();
+        this.selectClause = "select " + String.join(",", measurements) + " from ";
+    }
+
+    /**
+     * 校验设备上从 startTime 开始、间隔 interval 的 expectedRows 行数据，startTime 须为写入时的第一行
+     */
+    public Result verify(Session session, String device, long startTime, long interval, long expectedRows)
+            throws IoTDBConnectionException, StatementExecutionException {
+        SignalValues.Cursor[] cursors = new SignalValues.Cursor[measurements.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = values.cursor(device, i);
+        }
+        Result result = new Result();
+        long endTime = startTime + expectedRows * interval;
+        try (SessionDataSet dataSet = session.executeQueryStatement(
+                selectClause + device + " where time >= " + startTime + " and time < " + endTime)) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                long timestamp = iterator.getLong(1);
+                long expectedTime = startTime + result.rows * interval;
+                if (timestamp != expectedTime) {
+                    result.fail(device + " expect time " + expectedTime + " but got " + timestamp);
+                    return result;
+                }
+                for (int i = 0; i < cursors.length; i++) {
+                    result.points++;
+                    String mismatch = compare(iterator, i + 2, tsDataTypes.get(i), cursors[i].next(timestamp));
+                    if (mismatch != null) {
+                        result.fail(device + "." + measurements.get(i) + "@" + timestamp + " " + mismatch);
+                    }
+                }
+                result.rows++;
+            }
+        }
+        if (result.rows != expectedRows) {
+            result.fail(device + " expect " + expectedRows + " rows but got " + result.rows);
+        }
+        return result;
+    }
+
+    // 返回 null 表示一致，否则返回差异描述
+    private static String compare(SessionDataSet.DataIterator iterator, int column, TSDataType type, Object expected)
+            throws StatementExecutionException {
+        if (iterator.isNull(column)) {
+            return "is null";
+        }
+        switch (type) {
+            case BOOLEAN:
+                return describe(expected, iterator.getBoolean(column));
+            case INT32:
+                return describe(expected, iterator.getInt(column));
+            case INT64:
+            case TIMESTAMP:
+                return describe(expected, iterator.getLong(column));
+            case FLOAT:
+                return compareFloating((Float) expected, iterator.getFloat(column));
+            case DOUBLE:
+                return compareFloating((Double) expected, iterator.getDouble(column));
+            case DATE:
+                return describe(expected, iterator.getDate(column));
+            case TEXT:
+            case STRING:
+                return describe(SignalValues.toString((Binary) expected), iterator.getString(column));
+            case BLOB:
+                return describe(expected, iterator.getBlob(column));
+            default:
+                return "unsupported data type " + type;
+        }
+    }
+
+    private static String describe(Object expected, Object actual) {
+        return expected.equals(actual) ? null : "expect " + expected + " but got " + actual;
+    }
+
+    private static String compareFloating(double expected, double actual) {
+        return Math.abs(expected - actual) <= FLOAT_TOLERANCE * Math.max(1, Math.abs(expected)) ? null
+                : "expect " + expected + " but got " + actual;
+    }
+
+    /**
+     * 一次校验的结果，只保留第一条差异
+     */
+    public static class Result {
+        public long rows;
+        public long points;
+        public long mismatches;
+        public String firstMismatch;
+
+        private void fail(String message) {
+            if (mismatches++ == 0) {
+                firstMismatch = message;
+            }
+        }
+
+        public boolean isOk() {
+            return mismatches == 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * 可由种子寻址的确定性数据生成器：(设备, 物理量, 时间戳) 对应的值只取决于种子，不依赖调用顺序与线程，
+ * 写入端无需保存已写入的数据，校验端（SeededValueVerifier）可在流式读取查询结果时重新计算期望值。
+ * 浮点值保留两位小数，TEXT/STRING/BLOB/DATE 取自固定种子生成的池，避免逐单元格分配。
+ */
+public class SeededValues {
+    private static final int POOL_SIZE = 4096;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long MIN_DATE = LocalDate.of(1970, 1, 1).toEpochDay();
+    private static final String[] STRINGS = new String[POOL_SIZE];
+    private static final Binary[] BINARIES = new Binary[POOL_SIZE];
+    private static final LocalDate[] DATES = new LocalDate[POOL_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(GOLDEN);
+        char[] alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            char[] chars = new char[8 + random.nextInt(9)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            STRINGS[i] = new String(chars);
+            BINARIES[i] = new Binary(STRINGS[i].getBytes(StandardCharsets.UTF_8));
+            DATES[i] = LocalDate.ofEpochDay(MIN_DATE + random.nextInt(40000));
+        }
+    }
+
+    private final long seed;
+
+    public SeededValues(long seed) {
+        this.seed = mix64(seed);
+    }
+
+    // SplitMix64 的输出函数
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 一条序列的键，同一序列的多个时间点可复用，避免逐单元格计算字符串哈希
+     */
+    public static long key(String device, String measurement) {
+        return mix64(hash64(device) * 31 + hash64(measurement));
+    }
+
+    /**
+     * 序列在某个时间戳上的 64 位随机位
+     */
+    public long bits(long key, long timestamp) {
+        return mix64(seed ^ key ^ (timestamp * GOLDEN));
+    }
+
+    public boolean getBoolean(long key, long timestamp) {
+        return (bits(key, timestamp) & 1) != 0;
+    }
+
+    public int getInt(long key, long timestamp) {
+        return (int) bits(key, timestamp);
+    }
+
+    public long getLong(long key, long timestamp) {
+        return bits(key, timestamp);
+    }
+
+    // [0, 100000.00)，两位小数
+    public float getFloat(long key, long timestamp) {
+        return ((bits(key, timestamp) >>> 1) % 10000000) / 100f;
+    }
+
+    // [0, 10000000.00)，两位小数
+    public double getDouble(long key, long timestamp) {
+        return ((bits(key, timestamp) >>> 1) % 1000000000) / 100d;
+    }
+
+    public String getString(long key, long timestamp) {
+        return STRINGS[(int) bits(key, timestamp) & (POOL_SIZE - 1)];
+    }
+
+    public Binary getBinary(long key, long timestamp) {
+        return BINARIES[(int) bits(key, timestamp) & (POOL_SIZE - 1)];
+    }
+
+    public LocalDate getDate(long key, long timestamp) {
+        return DATES[(int) bits(key, timestamp) & (POOL_SIZE - 1)];
+    }
+
+    /**
+     * 固定池中的第 index 个字符串（按池大小取模），用于把低基数状态映射为字符串
+     */
+    public static String poolString(long index) {
+        return STRINGS[(int) (index & (POOL_SIZE - 1))];
+    }
+
+    public static Binary poolBinary(long index) {
+        return BINARIES[(int) (index & (POOL_SIZE - 1))];
+    }
+
+    /**
+     * 按数据类型返回装箱后的值（TEXT/STRING/BLOB 为 Binary），用于 insertRecord 等按行写入的接口
+     */
+    public Object getValue(TSDataType type, long key, long timestamp) {
+        switch (type) {
+            case BOOLEAN:
+                return getBoolean(key, timestamp);
+            case INT32:
+                return getInt(key, timestamp);
+            case INT64:
+            case TIMESTAMP:
+                return getLong(key, timestamp);
+            case FLOAT:
+                return getFloat(key, timestamp);
+            case DOUBLE:
+                return getDouble(key, timestamp);
+            case DATE:
+                return getDate(key, timestamp);
+            case TEXT:
+            case STRING:
+            case BLOB:
+                return getBinary(key, timestamp);
+            default:
+                throw new IllegalArgumentException("unsupported data type: " + type);
+        }
+    }
+
+    /**
+     * 直接填充 Tablet.getValues() 中某一列的 [from, to) 行，时间戳取 timestamps 中对应行，数值列不经过装箱
+     */
+    public void fillColumn(TSDataType type, Object column, long key, long[] timestamps, int from, int to) {
+        switch (type) {
+            case BOOLEAN:
+                boolean[] booleans = (boolean[]) column;
+                for (int i = from; i < to; i++) {
+                    booleans[i] = getBoolean(key, timestamps[i]);
+                }
+                break;
+            case INT32:
+                int[] ints = (int[]) column;
+                for (int i = from; i < to; i++) {
+                    ints[i] = getInt(key, timestamps[i]);
+                }
+                break;
+            case INT64:
+            case TIMESTAMP:
+                long[] longs = (long[]) column;
+                for (int i = from; i < to; i++) {
+                    longs[i] = getLong(key, timestamps[i]);
+                }
+                break;
+            case FLOAT:
+                float[] floats = (float[]) column;
+                for (int i = from; i < to; i++) {
+                    floats[i] = getFloat(key, timestamps[i]);
+                }
+                break;
+            case DOUBLE:
+                double[] doubles = (double[]) column;
+                for (int i = from; i < to; i++) {
+                    doubles[i] = getDouble(key, timestamps[i]);
+                }
+                break;
+            case DATE:
+                LocalDate[] dates = (LocalDate[]) column;
+                for (int i = from; i < to; i++) {
+                    dates[i] = getDate(key, timestamps[i]);
+                }
+                break;
+            case TEXT:
+            case STRING:
+            case BLOB:
+                Binary[] binaries = (Binary[]) column;
+                for (int i = from; i < to; i++) {
+                    binaries[i] = getBinary(key, timestamps[i]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported data type: " + type);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.apache.iotdb.api.test.utils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 数据形态模型：按时间顺序逐行生成一条序列的数值，用于模拟真实设备的信号形态，使不同编码/压缩方式的效果可以比较。
+ * 每条序列使用独立的确定性随机源，相同种子下写入端与校验端按相同顺序推进即可得到相同的值。
+ * 配置格式：name(key=value,...)，例如 walk(start=100,volatility=0.5)，支持的模型：
+ * counter（单调计数器）、walk（随机游走）、sine（带噪声的正弦周期信号）、step（阶梯/平台）、enum（低基数状态）、
+ * dict（从 StringDictionary 抽取，参数格式见该类，例如 dict(cardinality=1000000,length=8-32,distribution=zipf)）。
+ */
+public interface SignalModel {
+
+    /**
+     * 开始一条序列
+     */
+    Series start(SplittableRandom random);
+
+    /**
+     * 一条序列的生成状态，next 须按时间戳递增的顺序调用
+     */
+    interface Series {
+        double next(long timestamp);
+    }
+
+    /**
+     * 解析模型配置，random 或空返回 null（表示使用 SeededValues 的均匀随机值）
+     */
+    static SignalModel parse(String spec) {
+        String trimmed = spec.trim();
+        if (trimmed.isEmpty() || "random".equalsIgnoreCase(trimmed)) {
+            return null;
+        }
+        int paren = trimmed.indexOf('(');
+        String name = (paren < 0 ? trimmed : trimmed.substring(0, paren)).trim().toLowerCase(Locale.ROOT);
+        if ("dict".equals(name)) {
+            return new Dictionary(StringDictionary.shared(
+                    paren < 0 ? "" : trimmed.substring(paren + 1, trimmed.lastIndexOf(')'))));
+        }
+        Map<String, Double> params = new HashMap<>();
+        if (paren >= 0) {
+            String body = trimmed.substring(paren + 1, trimmed.lastIndexOf(')'));
+            for (String param : body.split(",")) {
+                if (!param.trim().isEmpty()) {
+                    String[] keyValue = param.split("=");
+                    params.put(keyValue[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(keyValue[1].trim()));
+                }
+            }
+        }
+        switch (name) {
+            case "counter":
+                return new Counter(params.getOrDefault("start", 0d), params.getOrDefault("increment", 1d),
+                        params.getOrDefault("jitter", 0d));
+            case "walk":
+                return new RandomWalk(params.getOrDefault("start", 0d), params.getOrDefault("volatility", 1d),
+                        params.getOrDefault("min", Double.NEGATIVE_INFINITY), params.getOrDefault("max", Double.POSITIVE_INFINITY));
+            case "sine":
+                return new Sinusoid(params.getOrDefault("offset", 0d), params.getOrDefault("amplitude", 100d),
+                        params.getOrDefault("period", 3600000d), params.getOrDefault("noise", 0d));
+            case "step":
+                return new Step(params.getOrDefault("min", 0d), params.getOrDefault("max", 100d),
+                        params.getOrDefault("levels", 10d).intValue(), params.getOrDefault("length", 100d));
+            case "enum":
+                return new EnumState(params.getOrDefault("cardinality", 8d).intValue(), params.getOrDefault("stay", 0.9));
+            default:
+                throw new IllegalArgumentException("bad input signal model: " + spec);
+        }
+    }
+
+    /**
+     * 单调递增计数器：每行增加 increment * (1 + jitter * u)，u 取 [0, 1)
+     */
+    class Counter implements SignalModel {
+        private final double start;
+        private final double increment;
+        private final double jitter;
+
+        public Counter(double start, double increment, double jitter) {
+            this.start = start;
+            this.increment = increment;
+            this.jitter = jitter;
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            double[] value = {start};
+            return timestamp -> {
+                double current = value[0];
+                value[0] += increment * (1 + jitter * random.nextDouble());
+                return current;
+            };
+        }
+    }
+
+    /**
+     * 随机游走：每行变化量近似服从标准差为 volatility 的正态分布，越界时反弹到 [min, max] 内
+     */
+    class RandomWalk implements SignalModel {
+        private final double start;
+        private final double volatility;
+        private final double min;
+        private final double max;
+
+        public RandomWalk(double start, double volatility, double min, double max) {
+            this.start = start;
+            this.volatility = volatility;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            double[] value = {start};
+            return timestamp -> {
+                double current = value[0];
+                // 12 个均匀分布之和减 6 近似标准正态分布
+                double gaussian = -6;
+                for (int i = 0; i < 12; i++) {
+                    gaussian += random.nextDouble();
+                }
+                double next = current + gaussian * volatility;
+                if (next > max) {
+                    next = 2 * max - next;
+                } else if (next < min) {
+                    next = 2 * min - next;
+                }
+                value[0] = Math.max(min, Math.min(max, next));
+                return current;
+            };
+        }
+    }
+
+    /**
+     * 正弦周期信号：offset + amplitude * sin(2π * t / period + phase) + noise * u，u 取 [-1, 1)，相位按序列随机
+     */
+    class Sinusoid implements SignalModel {
+        private final double offset;
+        private final double amplitude;
+        private final double period;
+        private final double noise;
+
+        public Sinusoid(double offset, double amplitude, double period, double noise) {
+            this.offset = offset;
+            this.amplitude = amplitude;
+            this.period = period;
+            this.noise = noise;
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            double phase = random.nextDouble() * 2 * Math.PI;
+            return timestamp -> offset + amplitude * Math.sin(2 * Math.PI * timestamp / period + phase)
+                    + (noise == 0 ? 0 : noise * (2 * random.nextDouble() - 1));
+        }
+    }
+
+    /**
+     * 阶梯信号：值停留在 levels 个等距档位之一，平均每 length 行切换一次档位
+     */
+    class Step implements SignalModel {
+        private final double min;
+        private final double max;
+        private final int levels;
+        private final double length;
+
+        public Step(double min, double max, int levels, double length) {
+            this.min = min;
+            this.max = max;
+            this.levels = Math.max(1, levels);
+            this.length = Math.max(1, length);
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            double[] value = {level(random)};
+            return timestamp -> {
+                if (random.nextDouble() < 1 / length) {
+                    value[0] = level(random);
+                }
+                return value[0];
+            };
+        }
+
+        private double level(SplittableRandom random) {
+            return levels == 1 ? min : min + (max - min) * random.nextInt(levels) / (levels - 1);
+        }
+    }
+
+    /**
+     * 低基数状态：取值为 [0, cardinality) 的状态编号，每行以 stay 的概率保持上一状态，否则随机切换；
+     * TEXT/STRING 列映射为对应数量的固定字符串
+     */
+    class EnumState implements SignalModel {
+        private final int cardinality;
+        private final double stay;
+
+        public EnumState(int cardinality, double stay) {
+            this.cardinality = Math.max(1, cardinality);
+            this.stay = stay;
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            int[] state = {random.nextInt(cardinality)};
+            return timestamp -> {
+                if (random.nextDouble() >= stay) {
+                    state[0] = random.nextInt(cardinality);
+                }
+                return state[0];
+            };
+        }
+    }
+
+    /**
+     * 字典抽样：取值为按字典分布抽取的序号，TEXT/STRING/BLOB 列映射为字典中对应的值
+     */
+    class Dictionary implements SignalModel {
+        private final StringDictionary dictionary;
+
+        public Dictionary(StringDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        public StringDictionary getDictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public Series start(SplittableRandom random) {
+            return timestamp -> dictionary.sample(random);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 按物理量配置数据形态的确定性数据源：每列可指定一个 SignalModel，未指定的列使用 SeededValues 的均匀随机值。
+ * 配置格式为以分号分隔的 选择器:模型，选择器可以是物理量名、数据类型或 *，优先级依次降低，例如
+ * {@code *:random;INT32:counter(increment=10);DOUBLE:walk(volatility=0.5);TEXT:enum(cardinality=8);s_0:sine(period=86400000)}，
+ * dict 模型的参数以逗号分隔，如 {@code STRING:dict(cardinality=1000,length=8-32,distribution=zipf,exponent=1.1)}。
+ * 同一 (种子, 设备, 物理量) 下，从同一起始行按时间顺序生成的值完全一致，写入端与 SeededValueVerifier 共用。
+ */
+public class SignalValues {
+    private final SeededValues seededValues;
+    private final List<String> measurements;
+    private final List<TSDataType> tsDataTypes;
+    // 下标与 measurements 一致，null 表示均匀随机
+    private final List<SignalModel> models;
+
+    public SignalValues(long seed, String spec, List<String> measurements, List<TSDataType> tsDataTypes) {
+        this.seededValues = new SeededValues(seed);
+        this.measurements = measurements;
+        this.tsDataTypes = tsDataTypes;
+        this.models = resolve(spec, measurements, tsDataTypes);
+    }
+
+    private static List<SignalModel> resolve(String spec, List<String> measurements, List<TSDataType> tsDataTypes) {
+        Map<String, SignalModel> bySelector = new HashMap<>();
+        if (spec != null) {
+            for (String entry : spec.split(";")) {
+                if (entry.trim().isEmpty()) {
+                    continue;
+                }
+                int colon = entry.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("bad input signal entry: " + entry);
+                }
+                bySelector.put(entry.substring(0, colon).trim(), SignalModel.parse(entry.substring(colon + 1)));
+            }
+        }
+        List<SignalModel> result = new ArrayList<>(measurements.size());
+        for (int i = 0; i < measurements.size(); i++) {
+            String type = tsDataTypes.get(i).name().toUpperCase(Locale.ROOT);
+            if (bySelector.containsKey(measurements.get(i))) {
+                result.add(bySelector.get(measurements.get(i)));
+            } else if (bySelector.containsKey(type)) {
+                result.add(bySelector.get(type));
+            } else {
+                result.add(bySelector.get("*"));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否所有列都是均匀随机值：此时值只取决于 (设备, 物理量, 时间戳)，与生成顺序无关，可用于乱序写入
+     */
+    public boolean isRandom() {
+        for (SignalModel model : models) {
+            if (model != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<String> getMeasurements() {
+        return measurements;
+    }
+
+    public List<TSDataType> getTsDataTypes() {
+        return tsDataTypes;
+    }
+
+    /**
+     * 从第一行开始生成设备上第 column 列的值
+     */
+    public Cursor cursor(String device, int column) {
+        long key = SeededValues.key(device, measurements.get(column));
+        SignalModel model = models.get(column);
+        SignalModel.Series series = model == null ? null : model.start(new SplittableRandom(seededValues.bits(key, Long.MIN_VALUE)));
+        StringDictionary dictionary = model instanceof SignalModel.Dictionary ? ((SignalModel.Dictionary) model).getDictionary() : null;
+        return new Cursor(tsDataTypes.get(column), key, series, dictionary);
+    }
+
+    /**
+     * 一条序列的生成游标，须按时间戳递增的顺序取值
+     */
+    public class Cursor {
+        private final TSDataType type;
+        private final long key;
+        private final SignalModel.Series series;
+        // 字典模型下字符串列取字典中的值，否则取 SeededValues 的固定池
+        private final StringDictionary dictionary;
+
+        private Cursor(TSDataType type, long key, SignalModel.Series series, StringDictionary dictionary) {
+            this.type = type;
+            this.key = key;
+            this.series = series;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * 下一行的值（TEXT/STRING/BLOB 为 Binary）
+         */
+        public Object next(long timestamp) {
+            if (series == null) {
+                return seededValues.getValue(type, key, timestamp);
+            }
+            double value = series.next(timestamp);
+            switch (type) {
+                case BOOLEAN:
+                    return Math.round(value) != 0;
+                case INT32:
+                    return (int) Math.round(value);
+                case INT64:
+                case TIMESTAMP:
+                    return Math.round(value);
+                case FLOAT:
+                    return (float) round2(value);
+                case DOUBLE:
+                    return round2(value);
+                case DATE:
+                    return LocalDate.ofEpochDay(Math.round(value));
+                case TEXT:
+                case STRING:
+                case BLOB:
+                    return dictionary != null ? dictionary.getBinary((int) value) : SeededValues.poolBinary(Math.round(value));
+                default:
+                    throw new IllegalArgumentException("unsupported data type: " + type);
+            }
+        }
+
+        /**
+         * 填充 Tablet 列数组的 [from, to) 行，数值列不经过装箱
+         */
+        public void fill(Object column, long[] timestamps, int from, int to) {
+            if (series == null) {
+                seededValues.fillColumn(type, column, key, timestamps, from, to);
+                return;
+            }
+            switch (type) {
+                case BOOLEAN:
+                    boolean[] booleans = (boolean[]) column;
+                    for (int i = from; i < to; i++) {
+                        booleans[i] = Math.round(series.next(timestamps[i])) != 0;
+                    }
+                    break;
+                case INT32:
+                    int[] ints = (int[]) column;
+                    for (int i = from; i < to; i++) {
+                        ints[i] = (int) Math.round(series.next(timestamps[i]));
+                    }
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    long[] longs = (long[]) column;
+                    for (int i = from; i < to; i++) {
+                        longs[i] = Math.round(series.next(timestamps[i]));
+                    }
+                    break;
+                case FLOAT:
+                    float[] floats = (float[]) column;
+                    for (int i = from; i < to; i++) {
+                        floats[i] = (float) round2(series.next(timestamps[i]));
+                    }
+                    break;
+                case DOUBLE:
+                    double[] doubles = (double[]) column;
+                    for (int i = from; i < to; i++) {
+                        doubles[i] = round2(series.next(timestamps[i]));
+                    }
+                    break;
+                default:
+                    // DATE 与字符串类型本身需要对象，逐行取值
+                    Object[] objects = (Object[]) column;
+                    for (int i = from; i < to; i++) {
+                        objects[i] = next(timestamps[i]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // 保留两位小数，与 SeededValues 的浮点精度一致
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100d;
+    }
+
+    /**
+     * Binary 转为字符串，用于与查询结果比较
+     */
+    static String toString(Binary binary) {
+        return new String(binary.getValues(), StandardCharsets.UTF_8);
+    }
+}
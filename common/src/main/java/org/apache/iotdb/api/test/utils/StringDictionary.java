@@ -0,0 +1,151 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预生成、常驻内存的字符串字典，用于以可控的基数生成 TEXT/STRING/BLOB 值（模拟标签、状态等字段）。
+ * 字典包含 cardinality 个互不相同的值，长度在 [minLength, maxLength] 内均匀分布，内容由 seed 确定；
+ * 取值分布为 uniform（均匀）或 zipf（第 k 个值的概率正比于 1/k^exponent，少数值占大多数）。
+ * 只保存 Binary（UTF-8 字节），基数 1M、平均长度 20 时约占 60MB 堆内存。
+ * 配置格式：cardinality=1000,length=8-32,distribution=zipf,exponent=1.1,seed=0
+ */
+public class StringDictionary {
+    public static final String UNIFORM = "uniform";
+    public static final String ZIPF = "zipf";
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    // 相同配置的字典在进程内共享，避免每个 worker 各生成一份
+    private static final Map<String, StringDictionary> SHARED = new ConcurrentHashMap<>();
+
+    private final Binary[] values;
+    // zipf 分布的累积概率，uniform 时为 null
+    private final double[] cumulative;
+    private final String description;
+
+    public StringDictionary(int cardinality, int minLength, int maxLength, String distribution, double exponent, long seed) {
+        if (cardinality <= 0 || minLength <= 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("bad input string dictionary: cardinality=" + cardinality
+                    + ", length=" + minLength + "-" + maxLength);
+        }
+        this.values = new Binary[cardinality];
+        SplittableRandom random = new SplittableRandom(seed);
+        int suffixLength = suffixLength(cardinality);
+        for (int i = 0; i < cardinality; i++) {
+            values[i] = new Binary(entry(random, i, suffixLength, minLength + random.nextInt(maxLength - minLength + 1))
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        if (ZIPF.equalsIgnoreCase(distribution)) {
+            this.cumulative = new double[cardinality];
+            double sum = 0;
+            for (int i = 0; i < cardinality; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                cumulative[i] /= sum;
+            }
+            this.description = cardinality + " values, length " + minLength + "-" + maxLength + ", zipf(" + exponent + ")";
+        } else if (UNIFORM.equalsIgnoreCase(distribution)) {
+            this.cumulative = null;
+            this.description = cardinality + " values, length " + minLength + "-" + maxLength + ", uniform";
+        } else {
+            throw new IllegalArgumentException("bad input string dictionary distribution: " + distribution);
+        }
+    }
+
+    // 表示 [0, cardinality) 内的序号所需的 62 进制位数
+    private static int suffixLength(int cardinality) {
+        int length = 1;
+        for (long capacity = ALPHABET.length; capacity < cardinality; capacity *= ALPHABET.length) {
+            length++;
+        }
+        return length;
+    }
+
+    // 随机字符后缀上定长（suffixLength 位）的序号 62 进制编码，保证互不相同；长度不足以容纳序号时按序号长度
+    private static String entry(SplittableRandom random, int index, int suffixLength, int length) {
+        char[] chars = new char[Math.max(length, suffixLength)];
+        int prefixLength = chars.length - suffixLength;
+        for (int i = 0; i < prefixLength; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        int rest = index;
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = ALPHABET[rest % ALPHABET.length];
+            rest /= ALPHABET.length;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 解析配置，格式见类注释，未给出的项取默认值（cardinality=1000,length=8-16,distribution=uniform,exponent=1,seed=0）
+     */
+    public static StringDictionary parse(String spec) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : spec.split(",")) {
+            if (!param.trim().isEmpty()) {
+                String[] keyValue = param.split("=");
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("bad input string dictionary: " + spec);
+                }
+                params.put(keyValue[0].trim().toLowerCase(Locale.ROOT), keyValue[1].trim());
+            }
+        }
+        String[] length = params.getOrDefault("length", "8-16").split("-");
+        int minLength = Integer.parseInt(length[0].trim());
+        int maxLength = length.length > 1 ? Integer.parseInt(length[1].trim()) : minLength;
+        return new StringDictionary(Integer.parseInt(params.getOrDefault("cardinality", "1000")), minLength, maxLength,
+                params.getOrDefault("distribution", UNIFORM), Double.parseDouble(params.getOrDefault("exponent", "1")),
+                Long.parseLong(params.getOrDefault("seed", "0")));
+    }
+
+    /**
+     * 与 parse 相同，但相同配置只生成一次
+     */
+    public static StringDictionary shared(String spec) {
+        return SHARED.computeIfAbsent(spec.replace(" ", ""), StringDictionary::parse);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * 按配置的分布抽取一个序号
+     */
+    public int sample(SplittableRandom random) {
+        if (cumulative == null) {
+            return random.nextInt(values.length);
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // 未命中时返回 -(插入点) - 1，插入点即第一个大于 u 的位置
+        return Math.min(index < 0 ? -index - 1 : index, values.length - 1);
+    }
+
+    public Binary getBinary(int index) {
+        return values[index];
+    }
+
+    /**
+     * 以当前线程的随机源（FastValueGenerator）抽取一个值
+     */
+    public Binary nextBinary() {
+        return values[sample(FastValueGenerator.random())];
+    }
+
+    public String nextString() {
+        return new String(nextBinary().getValues(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,169 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按线程隔离的 Tablet 对象池：以 (列结构, 列类别, 最大行数) 为键复用 Tablet 及其基本类型列数组，
+ * 避免长时间写入时每批都分配大数组带来的 GC 压力。每个线程持有独立的池，借还无锁；每个线程最多缓存 MAX_TABLETS 个 Tablet，超出的直接丢弃。
+ * 借出的 Tablet 已重置（行数为 0）并设置为新的设备或表，调用方应填满要写入的行（如 ColumnarTabletBuilder），写入完成后归还，归还后不得再使用。
+ * 是否启用由 config.properties 中 tablet_pool 决定，未启用时 acquire 每次新建、release 不做任何事。
+ * 树模型与表模型 Tablet 分别按物理量结构、(列名, 数据类型, 列类别) 区分，互不复用；Tablet 必须归还给借出它的线程的池，否则直接丢弃。
+ */
+public class TabletPool {
+    private static final int MAX_TABLETS = 16;
+    private static final ThreadLocal<TabletPool> LOCAL = ThreadLocal.withInitial(TabletPool::new);
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static volatile boolean enabled = readEnabled();
+
+    private final Map<Shape, ArrayDeque<Tablet>> free = new HashMap<>();
+    // 借出中的 Tablet 及其键，归还时按借出时的键放回
+    private final Map<Tablet, Shape> borrowed = new IdentityHashMap<>();
+    private int size;
+
+    private static boolean readEnabled() {
+        try {
+            return ReadConfig.getInstance().getBoolean("tablet_pool", false);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 当前线程的池
+     */
+    public static TabletPool local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * 借出一个结构相同、行数为 maxRows 的空树模型 Tablet，池中没有时新建
+     */
+    public Tablet acquire(String deviceId, List<IMeasurementSchema> schemas, int maxRows) {
+        if (!enabled) {
+            return new Tablet(deviceId, schemas, maxRows);
+        }
+        Shape shape = new Shape(schemas, null, null, maxRows);
+        Tablet tablet = poll(shape);
+        if (tablet != null) {
+            tablet.setDeviceId(deviceId);
+        } else {
+            tablet = new Tablet(deviceId, schemas, maxRows);
+        }
+        borrowed.put(tablet, shape);
+        return tablet;
+    }
+
+    /**
+     * 借出一个列名、数据类型、列类别相同、行数为 maxRows 的空表模型 Tablet，池中没有时新建
+     */
+    public Tablet acquire(String tableName, List<String> columnNames, List<TSDataType> dataTypes,
+                          List<ColumnCategory> categories, int maxRows) {
+        if (!enabled) {
+            return new Tablet(tableName, columnNames, dataTypes, categories, maxRows);
+        }
+        Shape shape = new Shape(columnNames, dataTypes, categories, maxRows);
+        Tablet tablet = poll(shape);
+        if (tablet != null) {
+            tablet.setTableName(tableName);
+        } else {
+            tablet = new Tablet(tableName, columnNames, dataTypes, categories, maxRows);
+        }
+        borrowed.put(tablet, shape);
+        return tablet;
+    }
+
+    private Tablet poll(Shape shape) {
+        ArrayDeque<Tablet> tablets = free.get(shape);
+        Tablet tablet = tablets == null ? null : tablets.pollLast();
+        if (tablet == null) {
+            MISSES.increment();
+            return null;
+        }
+        size--;
+        HITS.increment();
+        tablet.reset();
+        return tablet;
+    }
+
+    /**
+     * 归还 Tablet；未启用、不是当前线程的池借出的或当前线程缓存已满时丢弃
+     */
+    public void release(Tablet tablet) {
+        if (!enabled) {
+            return;
+        }
+        Shape shape = borrowed.remove(tablet);
+        if (shape == null || size >= MAX_TABLETS) {
+            return;
+        }
+        free.computeIfAbsent(shape, key -> new ArrayDeque<>()).addLast(tablet);
+        size++;
+    }
+
+    /**
+     * 所有线程累计的命中与未命中次数，未启用时均为 0
+     */
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    // 树模型以物理量结构（按 MeasurementSchema 的值比较）为键，表模型以列名、数据类型与列类别为键，不同设备或表可共用
+    private static final class Shape {
+        private final List<?> columns;
+        private final List<TSDataType> dataTypes;
+        private final List<ColumnCategory> categories;
+        private final int maxRows;
+        private final int hash;
+
+        private Shape(List<?> columns, List<TSDataType> dataTypes, List<ColumnCategory> categories, int maxRows) {
+            this.columns = columns;
+            this.dataTypes = dataTypes;
+            this.categories = categories;
+            this.maxRows = maxRows;
+            this.hash = 31 * (31 * (31 * columns.hashCode() + Objects.hashCode(dataTypes)) + Objects.hashCode(categories)) + maxRows;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Shape)) {
+                return false;
+            }
+            Shape shape = (Shape) other;
+            return maxRows == shape.maxRows && hash == shape.hash && columns.equals(shape.columns)
+                    && Objects.equals(dataTypes, shape.dataTypes) && Objects.equals(categories, shape.categories);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
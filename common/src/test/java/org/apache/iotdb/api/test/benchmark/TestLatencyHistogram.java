@@ -0,0 +1,124 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * LatencyHistogram 的确定性单元测试：分桶边界、桶内最大值、区间相减与百分位
+ */
+public class TestLatencyHistogram {
+
+    @Test
+    public void testBucketIndexExactBelowSubBucketCount() {
+        for (long value = 0; value < 128; value++) {
+            Assert.assertEquals(LatencyHistogram.bucketIndex(value), (int) value);
+            Assert.assertEquals(LatencyHistogram.highestEquivalentValue((int) value), value);
+        }
+        // 负值计入第 0 个桶
+        Assert.assertEquals(LatencyHistogram.bucketIndex(-5), 0);
+    }
+
+    @Test
+    public void testBucketIndexBoundaries() {
+        // 128 起每个桶宽度为 2，256 起为 4，依此类推
+        Assert.assertEquals(LatencyHistogram.bucketIndex(128), 128);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(129), 128);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(130), 129);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(255), 191);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(256), 192);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(259), 192);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(260), 193);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(1000), 317);
+        Assert.assertEquals(LatencyHistogram.bucketIndex(Long.MAX_VALUE), LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    public void testHighestEquivalentValue() {
+        Assert.assertEquals(LatencyHistogram.highestEquivalentValue(128), 129L);
+        Assert.assertEquals(LatencyHistogram.highestEquivalentValue(191), 255L);
+        Assert.assertEquals(LatencyHistogram.highestEquivalentValue(192), 259L);
+        Assert.assertEquals(LatencyHistogram.highestEquivalentValue(317), 1007L);
+        Assert.assertEquals(LatencyHistogram.highestEquivalentValue(LatencyHistogram.BUCKET_COUNT - 1), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        // 每个桶的最大值落在本桶，加 1 落在下一个桶，且相对误差不超过 1/64
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT - 1; index++) {
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            Assert.assertEquals(LatencyHistogram.bucketIndex(highest), index, "highest of bucket " + index);
+            Assert.assertEquals(LatencyHistogram.bucketIndex(highest + 1), index + 1, "after bucket " + index);
+            long lowest = index == 0 ? 0 : LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+            Assert.assertTrue(highest - lowest <= Math.max(0, lowest / 64), "width of bucket " + index);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.recordValue(value);
+        }
+        Assert.assertEquals(histogram.getTotalCount(), 100L);
+        Assert.assertEquals(histogram.getValueAtPercentile(0), 1L);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 50L);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 99L);
+        Assert.assertEquals(histogram.getValueAtPercentile(99.5), 100L);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 100L);
+        Assert.assertEquals(histogram.getMaxValue(), 100L);
+        Assert.assertEquals(histogram.getMean(), 50.5, 1e-9);
+    }
+
+    @Test
+    public void testPercentileReportsBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordValue(1000);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 1007L);
+        Assert.assertEquals(histogram.getMaxValue(), 1007L);
+        // 均值由精确的总和计算，不受分桶影响
+        Assert.assertEquals(histogram.getMean(), 1000.0, 1e-9);
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getTotalCount(), 0L);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0L);
+        Assert.assertEquals(histogram.getMaxValue(), 0L);
+        Assert.assertEquals(histogram.getMean(), 0.0, 0);
+    }
+
+    @Test
+    public void testMinusGivesIntervalHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 5; i++) {
+            histogram.recordValue(10);
+        }
+        LatencyHistogram base = histogram.copy();
+        for (int i = 0; i < 3; i++) {
+            histogram.recordValue(1000);
+        }
+        LatencyHistogram interval = histogram.minus(base);
+        Assert.assertEquals(interval.getTotalCount(), 3L);
+        Assert.assertEquals(interval.getValueAtPercentile(1), 1007L);
+        Assert.assertEquals(interval.getMean(), 1000.0, 1e-9);
+        // 被减数与快照本身不变
+        Assert.assertEquals(histogram.getTotalCount(), 8L);
+        Assert.assertEquals(base.getTotalCount(), 5L);
+        Assert.assertEquals(base.getMaxValue(), 10L);
+        Assert.assertEquals(histogram.minus(histogram.copy()).getTotalCount(), 0L);
+    }
+
+    @Test
+    public void testAddMergesCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordValue(10);
+        second.recordValue(20);
+        second.recordValue(30);
+        first.add(second);
+        Assert.assertEquals(first.getTotalCount(), 3L);
+        Assert.assertEquals(first.getValueAtPercentile(100), 30L);
+        Assert.assertEquals(first.getMean(), 20.0, 1e-9);
+    }
+}
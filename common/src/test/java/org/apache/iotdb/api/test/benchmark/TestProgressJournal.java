@@ -0,0 +1,225 @@
+package org.apache.iotdb.api.test.benchmark;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ProgressJournal 的单元测试：8MB 分段边界、崩溃后不完整的尾部记录，以及 close 后续跑
+ */
+public class TestProgressJournal {
+    private static final long SEGMENT_BYTES = 8L << 20;
+    // 第一段去掉 16 字节文件头后可容纳的记录数
+    private static final int FIRST_SEGMENT_RECORDS = (int) ((SEGMENT_BYTES - 16) / 8);
+
+    private Path file;
+
+    @BeforeMethod
+    public void beforeMethod() throws IOException {
+        file = Files.createTempFile("progress-journal", ".bin");
+    }
+
+    @AfterMethod
+    public void afterMethod() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testResumeAfterClose() throws IOException {
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, false)) {
+            Assert.assertTrue(journal.completed().isEmpty());
+            journal.markCompleted(3);
+            journal.markCompleted(0);
+            journal.markCompleted(99);
+        }
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 3);
+            Assert.assertTrue(journal.isCompleted(0) && journal.isCompleted(3) && journal.isCompleted(99));
+            Assert.assertFalse(journal.isCompleted(1));
+            // 续跑时在已有记录之后追加，不覆盖上次的记录
+            journal.markCompleted(50);
+        }
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 4);
+            Assert.assertTrue(journal.isCompleted(50) && journal.isCompleted(3));
+        }
+        // resume 为 false 时清空重新记录
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, false)) {
+            Assert.assertTrue(journal.completed().isEmpty());
+        }
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertTrue(journal.completed().isEmpty());
+        }
+    }
+
+    @Test
+    public void testResumeWithoutClose() throws IOException {
+        // 不调用 close 模拟进程崩溃：映射区的写入已在页缓存中，新的实例可以读到
+        ProgressJournal crashed = ProgressJournal.open(file.toString(), 10, false);
+        try {
+            crashed.markCompleted(2);
+            crashed.markCompleted(7);
+            try (ProgressJournal journal = ProgressJournal.open(file.toString(), 10, true)) {
+                Assert.assertEquals(journal.completed().cardinality(), 2);
+                Assert.assertTrue(journal.isCompleted(2) && journal.isCompleted(7));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void testSegmentRollover() throws IOException {
+        // 记录数超过第一段的容量，最后几条写入第二段
+        int total = FIRST_SEGMENT_RECORDS + 10;
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), total, false)) {
+            for (int i = 0; i < total; i++) {
+                journal.markCompleted(i);
+            }
+        }
+        Assert.assertEquals(Files.size(file), 2 * SEGMENT_BYTES);
+        // 第二段的第一条记录位于 8MB 处，内容为设备序号 + 1
+        Assert.assertEquals(readRecordAt(SEGMENT_BYTES), FIRST_SEGMENT_RECORDS + 1L);
+        Assert.assertEquals(readRecordAt(SEGMENT_BYTES - 8), (long) FIRST_SEGMENT_RECORDS);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), total, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), total);
+            Assert.assertTrue(journal.isCompleted(FIRST_SEGMENT_RECORDS - 1));
+            Assert.assertTrue(journal.isCompleted(FIRST_SEGMENT_RECORDS));
+            Assert.assertTrue(journal.isCompleted(total - 1));
+        }
+    }
+
+    @Test
+    public void testResumeAtSegmentBoundary() throws IOException {
+        // 第一段恰好写满后续跑，下一条记录应写入第二段开头
+        int total = FIRST_SEGMENT_RECORDS + 1;
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), total, false)) {
+            for (int i = 0; i < FIRST_SEGMENT_RECORDS; i++) {
+                journal.markCompleted(i);
+            }
+        }
+        Assert.assertEquals(Files.size(file), SEGMENT_BYTES);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), total, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), FIRST_SEGMENT_RECORDS);
+            Assert.assertFalse(journal.isCompleted(FIRST_SEGMENT_RECORDS));
+            journal.markCompleted(FIRST_SEGMENT_RECORDS);
+        }
+        Assert.assertEquals(readRecordAt(SEGMENT_BYTES), FIRST_SEGMENT_RECORDS + 1L);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), total, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), total);
+        }
+    }
+
+    @Test
+    public void testTornTail() throws IOException {
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, false)) {
+            for (int i = 0; i < 5; i++) {
+                journal.markCompleted(i * 10);
+            }
+        }
+        // 崩溃时最后一条记录只写入了一部分：文件截断在第 6 条记录中间
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(16 + 5 * 8 + 3);
+        }
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 5);
+            Assert.assertTrue(journal.isCompleted(40));
+            // 新记录覆盖不完整的尾部
+            journal.markCompleted(77);
+        }
+        Assert.assertEquals(readRecordAt(16 + 5 * 8), 78L);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 6);
+            Assert.assertTrue(journal.isCompleted(77));
+        }
+    }
+
+    @Test
+    public void testHolesAndInvalidRecordsAreSkipped() throws IOException {
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, false)) {
+            journal.markCompleted(1);
+            journal.markCompleted(2);
+            journal.markCompleted(3);
+        }
+        // 第 2 条记录的位置已领取但未写入（空位），第 3 条为越界的损坏值
+        writeRecordAt(16 + 8, 0);
+        writeRecordAt(16 + 2 * 8, 1000);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 1);
+            Assert.assertTrue(journal.isCompleted(1));
+            journal.markCompleted(9);
+        }
+        // 续跑从最后一条有效记录之后追加，空位之后的记录不会丢失
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertEquals(journal.completed().cardinality(), 2);
+            Assert.assertTrue(journal.isCompleted(9));
+        }
+    }
+
+    @Test
+    public void testTruncatedHeaderIsEmpty() throws IOException {
+        // 文件头只写入一部分，或映射区已创建但文件头尚未写入（全为 0）
+        for (byte[] content : new byte[][]{new byte[5], new byte[64]}) {
+            Files.write(file, content);
+            try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+                Assert.assertTrue(journal.completed().isEmpty());
+            }
+        }
+        Files.write(file, new byte[10]);
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertTrue(journal.completed().isEmpty());
+            journal.markCompleted(5);
+        }
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, true)) {
+            Assert.assertTrue(journal.isCompleted(5));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testResumeFromOtherFile() throws IOException {
+        Files.write(file, "not a progress journal".getBytes(StandardCharsets.UTF_8));
+        ProgressJournal.open(file.toString(), 100, true).close();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testResumeWithDifferentDeviceCount() throws IOException {
+        try (ProgressJournal journal = ProgressJournal.open(file.toString(), 100, false)) {
+            journal.markCompleted(1);
+        }
+        ProgressJournal.open(file.toString(), 200, true).close();
+    }
+
+    // 读取文件 position 处的 8 字节记录（大端，与 MappedByteBuffer 默认字节序一致）
+    private long readRecordAt(long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("end of file at " + position);
+                }
+            }
+            buffer.flip();
+            return buffer.getLong();
+        }
+    }
+
+    private void writeRecordAt(long position, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+            buffer.putLong(value).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ColumnarTabletBuilder.build() 的单元测试：行数、时间戳、按列写入的值与空值位图，以及 reset 后复用
+ */
+public class TestColumnarTabletBuilder {
+
+    private static Tablet treeTablet(int maxRows) {
+        List<IMeasurementSchema> schemas = new ArrayList<>();
+        schemas.add(new MeasurementSchema("s_0", TSDataType.INT32));
+        schemas.add(new MeasurementSchema("s_1", TSDataType.DOUBLE));
+        schemas.add(new MeasurementSchema("s_2", TSDataType.TEXT));
+        return new Tablet("root.sg.d1", schemas, maxRows);
+    }
+
+    @Test
+    public void testBuildSetsRowSizeValuesAndNulls() {
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(4));
+        builder.addRow(100);
+        builder.setInt(0, 1);
+        builder.setNull(1);
+        builder.setString(2, "a");
+        builder.addRow(200);
+        builder.setInt(0, 2);
+        builder.setDouble(1, 2.5);
+        builder.setNull(2);
+        Tablet tablet = builder.build();
+
+        Assert.assertEquals(tablet.getRowSize(), 2);
+        Assert.assertEquals(tablet.getTimestamps()[0], 100L);
+        Assert.assertEquals(tablet.getTimestamps()[1], 200L);
+        Assert.assertEquals(((int[]) tablet.getValues()[0])[1], 2);
+        Assert.assertEquals(((double[]) tablet.getValues()[1])[1], 2.5, 0);
+        Assert.assertEquals(((Binary[]) tablet.getValues()[2])[0].getValues(), "a".getBytes(StandardCharsets.UTF_8));
+        assertNulls(tablet.getBitMaps()[0], 2);
+        assertNulls(tablet.getBitMaps()[1], 2, 0);
+        assertNulls(tablet.getBitMaps()[2], 2, 1);
+    }
+
+    @Test
+    public void testBuildWithoutNullsClearsBitMaps() {
+        // addTimestamp 会把新行在各列标记为空，build 必须按列重置
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(3));
+        builder.addRows(new long[]{1, 2, 3}, 0, 3);
+        Arrays.fill((int[]) builder.column(0), 7);
+        Arrays.fill((double[]) builder.column(1), 1.5);
+        Arrays.fill((Binary[]) builder.column(2), new Binary("x".getBytes(StandardCharsets.UTF_8)));
+        Tablet tablet = builder.build();
+        Assert.assertEquals(tablet.getRowSize(), 3);
+        for (int column = 0; column < builder.columnCount(); column++) {
+            assertNulls(tablet.getBitMaps()[column], 3);
+        }
+    }
+
+    @Test
+    public void testSetNullRange() {
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(5));
+        builder.addRows(new long[]{1, 2, 3, 4, 5}, 0, 5);
+        builder.setNull(1, 1, 4);
+        Tablet tablet = builder.build();
+        Assert.assertEquals(tablet.getRowSize(), 5);
+        assertNulls(tablet.getBitMaps()[1], 5, 1, 2, 3);
+        assertNulls(tablet.getBitMaps()[0], 5);
+    }
+
+    @Test
+    public void testSetNullRangeAcrossBytes() {
+        // 跨多个字节的区间：两端不足一个字节的部分逐位标记，中间整字节填充
+        int rows = 30;
+        for (int[] range : new int[][]{{3, 27}, {8, 16}, {0, 30}, {5, 7}, {9, 9}, {15, 17}}) {
+            ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(rows));
+            long[] times = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                times[row] = row;
+            }
+            builder.addRows(times, 0, rows);
+            builder.setNull(0, range[0], range[1]);
+            Tablet tablet = builder.build();
+            int[] expected = new int[range[1] - range[0]];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = range[0] + i;
+            }
+            assertNulls(tablet.getBitMaps()[0], rows, expected);
+        }
+    }
+
+    @Test
+    public void testBuildClearsNullsBeyondRowCount() {
+        // 超出行数的空值不能拷贝到 Tablet 的位图中
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(16));
+        builder.addRows(new long[]{1, 2, 3}, 0, 3);
+        builder.setNull(1, 0, 16);
+        Tablet tablet = builder.build();
+        assertNulls(tablet.getBitMaps()[1], 16, 0, 1, 2);
+    }
+
+    @Test
+    public void testResetClearsRowsAndNulls() {
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(4));
+        builder.addRows(new long[]{1, 2, 3}, 0, 3);
+        builder.setNull(0, 0, 3);
+        builder.build();
+
+        builder.reset();
+        Assert.assertEquals(builder.rowCount(), 0);
+        builder.addRow(10);
+        builder.setInt(0, 5);
+        builder.setDouble(1, 1.0);
+        builder.setString(2, "b");
+        Tablet tablet = builder.build();
+        Assert.assertEquals(tablet.getRowSize(), 1);
+        Assert.assertEquals(tablet.getTimestamps()[0], 10L);
+        // 上一轮的空值不能残留
+        assertNulls(tablet.getBitMaps()[0], 1);
+    }
+
+    @Test
+    public void testEmptyBuild() {
+        Tablet tablet = new ColumnarTabletBuilder(treeTablet(2)).build();
+        Assert.assertEquals(tablet.getRowSize(), 0);
+        Assert.assertNotNull(tablet.getBitMaps());
+    }
+
+    @Test
+    public void testTableTablet() {
+        Tablet table = new Tablet("t1", Arrays.asList("device_id", "s_0"), Arrays.asList(TSDataType.STRING, TSDataType.INT64),
+                Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD), 2);
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(table);
+        Assert.assertEquals(builder.columnIndex("s_0"), 1);
+        builder.addRow(1);
+        builder.setString(0, "d1");
+        builder.setValue(1, 42);
+        builder.addRow(2);
+        builder.setString(0, "d1");
+        builder.setValue(1, null);
+        Tablet tablet = builder.build();
+        Assert.assertEquals(tablet.getRowSize(), 2);
+        Assert.assertEquals(((long[]) tablet.getValues()[1])[0], 42L);
+        assertNulls(tablet.getBitMaps()[0], 2);
+        assertNulls(tablet.getBitMaps()[1], 2, 1);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testAddRowBeyondCapacity() {
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(treeTablet(1));
+        builder.addRow(1);
+        builder.addRow(2);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testSetBeforeAddRow() {
+        new ColumnarTabletBuilder(treeTablet(1)).setInt(0, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownColumn() {
+        new ColumnarTabletBuilder(treeTablet(1)).columnIndex("s_9");
+    }
+
+    // 断言 [0, rows) 行中恰好 nullRows 被标记为空
+    private static void assertNulls(BitMap bitMap, int rows, int... nullRows) {
+        boolean[] expected = new boolean[rows];
+        for (int row : nullRows) {
+            expected[row] = true;
+        }
+        for (int row = 0; row < rows; row++) {
+            Assert.assertEquals(bitMap.isMarked(row), expected[row], "row " + row);
+        }
+    }
+}
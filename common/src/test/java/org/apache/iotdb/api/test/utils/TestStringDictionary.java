@@ -0,0 +1,111 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * StringDictionary 的确定性单元测试：字典内容、配置解析与 uniform/zipf 抽样分布（固定随机种子）
+ */
+public class TestStringDictionary {
+    private static final int SAMPLES = 200000;
+
+    @Test
+    public void testValuesAreDistinctAndWithinLength() {
+        StringDictionary dictionary = StringDictionary.parse("cardinality=5000,length=2-6,seed=3");
+        Assert.assertEquals(dictionary.size(), 5000);
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            String value = new String(dictionary.getBinary(i).getValues(), StandardCharsets.UTF_8);
+            values.add(value);
+            // 5000 个序号的 62 进制编码需要 3 位，长度不足 3 的按 3 位生成
+            Assert.assertTrue(value.length() >= 3 && value.length() <= 6, "length of " + value);
+        }
+        Assert.assertEquals(values.size(), 5000);
+    }
+
+    @Test
+    public void testSameSeedGivesSameDictionary() {
+        StringDictionary first = StringDictionary.parse("cardinality=100,length=8-32,seed=11");
+        StringDictionary second = StringDictionary.parse(" cardinality = 100 , length = 8-32 , seed = 11 ");
+        StringDictionary other = StringDictionary.parse("cardinality=100,length=8-32,seed=12");
+        boolean differs = false;
+        for (int i = 0; i < first.size(); i++) {
+            Assert.assertEquals(first.getBinary(i).getValues(), second.getBinary(i).getValues());
+            differs |= !new String(first.getBinary(i).getValues(), StandardCharsets.UTF_8)
+                    .equals(new String(other.getBinary(i).getValues(), StandardCharsets.UTF_8));
+        }
+        Assert.assertTrue(differs, "different seed should give different values");
+    }
+
+    @Test
+    public void testSharedReusesInstance() {
+        Assert.assertSame(StringDictionary.shared("cardinality=10,length=4"), StringDictionary.shared("cardinality=10, length=4"));
+    }
+
+    @Test
+    public void testZipfSampling() {
+        int cardinality = 100;
+        double exponent = 1.1;
+        StringDictionary dictionary = new StringDictionary(cardinality, 8, 8, StringDictionary.ZIPF, exponent, 0);
+        long[] counts = sample(dictionary, new SplittableRandom(7));
+        double harmonic = 0;
+        for (int k = 1; k <= cardinality; k++) {
+            harmonic += 1 / Math.pow(k, exponent);
+        }
+        // 第 k 个值的频率应接近 1/k^exponent / H，样本量 20 万时相对误差远小于 5%
+        for (int k : new int[]{1, 2, 3, 10}) {
+            double expected = SAMPLES / Math.pow(k, exponent) / harmonic;
+            Assert.assertEquals(counts[k - 1], expected, expected * 0.05, "count of rank " + k);
+        }
+        Assert.assertTrue(counts[0] > counts[1] && counts[1] > counts[9] && counts[9] > counts[99]);
+        // 尾部的值也能被抽到
+        Assert.assertTrue(counts[cardinality - 1] > 0);
+    }
+
+    @Test
+    public void testUniformSampling() {
+        int cardinality = 10;
+        StringDictionary dictionary = new StringDictionary(cardinality, 8, 8, StringDictionary.UNIFORM, 1, 0);
+        long[] counts = sample(dictionary, new SplittableRandom(7));
+        double expected = (double) SAMPLES / cardinality;
+        for (int i = 0; i < cardinality; i++) {
+            Assert.assertEquals(counts[i], expected, expected * 0.05, "count of " + i);
+        }
+    }
+
+    @Test
+    public void testSamplingIsDeterministic() {
+        StringDictionary dictionary = StringDictionary.parse("cardinality=1000,distribution=zipf,exponent=1.2");
+        SplittableRandom first = new SplittableRandom(5);
+        SplittableRandom second = new SplittableRandom(5);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(dictionary.sample(first), dictionary.sample(second));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBadDistribution() {
+        StringDictionary.parse("cardinality=10,distribution=normal");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBadLength() {
+        StringDictionary.parse("cardinality=10,length=8-4");
+    }
+
+    // 抽样 SAMPLES 次并按序号计数，同时检查序号范围
+    private static long[] sample(StringDictionary dictionary, SplittableRandom random) {
+        long[] counts = new long[dictionary.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            int index = dictionary.sample(random);
+            Assert.assertTrue(index >= 0 && index < dictionary.size(), "index " + index);
+            counts[index]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,90 @@
+package org.apache.iotdb.api.test.utils;
+
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TabletPool 的单元测试：树模型与表模型 Tablet 按各自的键复用，列类别不同的表模型 Tablet 不共用
+ */
+public class TestTabletPool {
+    private static final List<String> NAMES = Arrays.asList("device_id", "s_0");
+    private static final List<TSDataType> TYPES = Arrays.asList(TSDataType.STRING, TSDataType.INT64);
+    private static final List<ColumnCategory> TAG_FIELD = Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD);
+    private static final List<ColumnCategory> ATTRIBUTE_FIELD = Arrays.asList(ColumnCategory.ATTRIBUTE, ColumnCategory.FIELD);
+
+    private boolean enabled;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        enabled = TabletPool.isEnabled();
+        TabletPool.setEnabled(true);
+    }
+
+    @AfterMethod
+    public void afterMethod() {
+        TabletPool.setEnabled(enabled);
+    }
+
+    @Test
+    public void testTreeTabletReused() {
+        // 每个测试用新的池实例，避免与其他测试共用当前线程的池
+        TabletPool pool = new TabletPool();
+        List<IMeasurementSchema> schemas = Collections.singletonList(new MeasurementSchema("s_0", TSDataType.INT64));
+        Tablet tablet = pool.acquire("root.sg.d1", schemas, 4);
+        tablet.addTimestamp(0, 1);
+        pool.release(tablet);
+        // 结构按值比较，另一个设备可借到同一个 Tablet，且已重置
+        Tablet reused = pool.acquire("root.sg.d2", Collections.singletonList(new MeasurementSchema("s_0", TSDataType.INT64)), 4);
+        Assert.assertSame(reused, tablet);
+        Assert.assertEquals(reused.getDeviceId(), "root.sg.d2");
+        Assert.assertEquals(reused.getRowSize(), 0);
+        // 最大行数不同时不复用
+        pool.release(reused);
+        Assert.assertNotSame(pool.acquire("root.sg.d1", schemas, 8), tablet);
+    }
+
+    @Test
+    public void testTableTabletKeyedByCategories() {
+        TabletPool pool = new TabletPool();
+        Tablet tablet = pool.acquire("t1", NAMES, TYPES, TAG_FIELD, 4);
+        pool.release(tablet);
+        // 列名、数据类型相同但列类别不同，不能借到同一个 Tablet
+        Tablet other = pool.acquire("t1", NAMES, TYPES, ATTRIBUTE_FIELD, 4);
+        Assert.assertNotSame(other, tablet);
+        Assert.assertEquals(other.getColumnTypes(), ATTRIBUTE_FIELD);
+        Tablet reused = pool.acquire("t2", NAMES, TYPES, TAG_FIELD, 4);
+        Assert.assertSame(reused, tablet);
+        Assert.assertEquals(reused.getTableName(), "t2");
+    }
+
+    @Test
+    public void testTreeAndTableNotShared() {
+        TabletPool pool = new TabletPool();
+        List<IMeasurementSchema> schemas = Arrays.asList(new MeasurementSchema("device_id", TSDataType.STRING),
+                new MeasurementSchema("s_0", TSDataType.INT64));
+        Tablet tree = pool.acquire("root.sg.d1", schemas, 4);
+        pool.release(tree);
+        Assert.assertNotSame(pool.acquire("t1", NAMES, TYPES, TAG_FIELD, 4), tree);
+        Assert.assertSame(pool.acquire("root.sg.d1", schemas, 4), tree);
+    }
+
+    @Test
+    public void testForeignTabletDropped() {
+        TabletPool pool = new TabletPool();
+        // 不是这个池借出的 Tablet 归还时丢弃
+        Tablet foreign = new Tablet("t1", NAMES, TYPES, TAG_FIELD, 4);
+        pool.release(foreign);
+        Assert.assertNotSame(pool.acquire("t1", NAMES, TYPES, TAG_FIELD, 4), foreign);
+    }
+}
@@ -1,7 +1,9 @@
 package org.apache.iotdb.api.test.table.data;
 
 import org.apache.iotdb.api.test.BaseTestSuiteTableModel;
+import org.apache.iotdb.api.test.utils.ColumnarTabletBuilder;
 import org.apache.iotdb.api.test.utils.CustomDataProvider;
+import org.apache.iotdb.api.test.utils.TabletPool;
 import org.apache.iotdb.isession.SessionDataSet;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
@@ -245,64 +247,59 @@ public class TestInsertNormal extends BaseTestSuiteTableModel {
         columnCategoryList.add(ColumnCategory.FIELD);
         columnCategoryList.add(ColumnCategory.FIELD);
         columnCategoryList.add(ColumnCategory.FIELD);
-        // 构造tablet对象
-        Tablet tablet = new Tablet("insertNoNull", measurementList, dataTypeList, columnCategoryList, maxRowSize);
+        // 从当前线程的 Tablet 池借出 tablet 对象
+        TabletPool pool = TabletPool.local();
+        Tablet tablet = pool.acquire("insertNoNull", measurementList, dataTypeList, columnCategoryList, maxRowSize);
+        // 按列序号直接写入 tablet 的列数组
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
 
-        // 设置初始索引为0，表示从0行开始添加值
-        int rowIndex = 0;
         // 获取解析后的每行数据
         for (Iterator<Object[]> it = getNoNullData(); it.hasNext(); ) {
             // 统计期待数据的行数
             expect++;
             // 获取该行的SQL语句
             Object[] line = it.next();
-            // 添加时间戳
-            tablet.addTimestamp(rowIndex, Long.parseLong((String) line[0]));
+            // 添加时间戳，切换到新的一行
+            builder.addRow(Long.parseLong((String) line[0]));
             // 获取该行每列的数据
             for (int i = 0; i < measurementList.size(); i++) {
                 // 根据数据类型添加值到tablet，对于获取到的null值会设置默认值确保无null值
                 switch (dataTypeList.get(i)) {
                     case BOOLEAN:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] != null && Boolean.parseBoolean((String) line[i + 1]));
+                        builder.setBoolean(i, line[i + 1] != null && Boolean.parseBoolean((String) line[i + 1]));
                         break;
                     case INT32:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? 1 : Integer.parseInt((String) line[i + 1]));
+                        builder.setInt(i, line[i + 1] == null ? 1 : Integer.parseInt((String) line[i + 1]));
                         break;
                     case INT64:
                     case TIMESTAMP:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? 1L : Long.parseLong((String) line[i + 1]));
+                        builder.setLong(i, line[i + 1] == null ? 1L : Long.parseLong((String) line[i + 1]));
                         break;
                     case FLOAT:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? 1.01f : Float.parseFloat((String) line[i + 1]));
+                        builder.setFloat(i, line[i + 1] == null ? 1.01f : Float.parseFloat((String) line[i + 1]));
                         break;
                     case DOUBLE:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? 1.0 : Double.parseDouble((String) line[i + 1]));
+                        builder.setDouble(i, line[i + 1] == null ? 1.0 : Double.parseDouble((String) line[i + 1]));
                         break;
                     case TEXT:
                     case STRING:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? "stringnull" : line[i + 1]);
+                        builder.setString(i, line[i + 1] == null ? "stringnull" : (String) line[i + 1]);
                         break;
                     case BLOB:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? new Binary("iotdb", Charset.defaultCharset()) : new Binary((String) line[i + 1], Charset.defaultCharset()));
+                        builder.setBinary(i, line[i + 1] == null ? new Binary("iotdb", Charset.defaultCharset()) : new Binary((String) line[i + 1], Charset.defaultCharset()));
                         break;
                     case DATE:
-                        tablet.addValue(measurementList.get(i), rowIndex,
-                                line[i + 1] == null ? LocalDate.parse("2024-08-15") : LocalDate.parse((CharSequence) line[i + 1]));
+                        builder.setDate(i, line[i + 1] == null ? LocalDate.parse("2024-08-15") : LocalDate.parse((CharSequence) line[i + 1]));
                         break;
                 }
             }
-            // 切换到下一行
-            rowIndex++;
         }
-        // 插入数据
-        session.insert(tablet);
+        // 插入数据，写入后归还 tablet
+        try {
+            session.insert(builder.build());
+        } finally {
+            pool.release(tablet);
+        }
 
         // 计算实际每行的数量
         try (SessionDataSet dataSet = session.executeQueryStatement("select * from insertNoNull")) {
@@ -368,60 +365,64 @@ public class TestInsertNormal extends BaseTestSuiteTableModel {
         columnCategoryList.add(ColumnCategory.FIELD);
         columnCategoryList.add(ColumnCategory.FIELD);
         columnCategoryList.add(ColumnCategory.FIELD);
-        // 构造tablet对象
-        Tablet tablet = new Tablet("insertNull", measurementList, dataTypeList, columnCategoryList, maxRowSize);
-        tablet.initBitMaps();
+        // 从当前线程的 Tablet 池借出 tablet 对象
+        TabletPool pool = TabletPool.local();
+        Tablet tablet = pool.acquire("insertNull", measurementList, dataTypeList, columnCategoryList, maxRowSize);
+        // 按列序号直接写入 tablet 的列数组，空值位图在 build 时统一设置
+        ColumnarTabletBuilder builder = new ColumnarTabletBuilder(tablet);
 
-        // 设置初始索引为0，表示从0行开始添加值
-        int rowIndex = 0;
         // 获取解析后的每行数据
         for (Iterator<Object[]> it = getNullData(); it.hasNext(); ) {
             // 统计期待数据的行数
             expect++;
             // 获取该行数据
             Object[] line = it.next();
-            // 添加时间戳
-            tablet.addTimestamp(rowIndex, Long.parseLong((String) line[0]));
+            // 添加时间戳，切换到新的一行
+            builder.addRow(Long.parseLong((String) line[0]));
             // 获取该行每列的数据
             for (int i = 0; i < measurementList.size(); i++) {
-                // 判断是否为空，为空就不添加值
-                if (line[i + 1] != null) {
-                    // 不为空，则根据数据类型添加值到tablet
-                    switch (dataTypeList.get(i)) {
-                        case BOOLEAN:
-                            tablet.addValue(measurementList.get(i), rowIndex, Boolean.valueOf((String) line[i + 1]));
-                            break;
-                        case INT32:
-                            tablet.addValue(measurementList.get(i), rowIndex, Integer.valueOf((String) line[i + 1]));
-                            break;
-                        case INT64:
-                        case TIMESTAMP:
-                            tablet.addValue(measurementList.get(i), rowIndex, Long.valueOf((String) line[i + 1]));
-                            break;
-                        case FLOAT:
-                            tablet.addValue(measurementList.get(i), rowIndex, Float.valueOf((String) line[i + 1]));
-                            break;
-                        case DOUBLE:
-                            tablet.addValue(measurementList.get(i), rowIndex, Double.valueOf((String) line[i + 1]));
-                            break;
-                        case TEXT:
-                        case STRING:
-                            tablet.addValue(measurementList.get(i), rowIndex, line[i + 1]);
-                            break;
-                        case BLOB:
-                            tablet.addValue(measurementList.get(i), rowIndex, new Binary((String) line[i + 1], Charset.defaultCharset()));
-                            break;
-                        case DATE:
-                            tablet.addValue(measurementList.get(i), rowIndex, LocalDate.parse((CharSequence) line[i + 1]));
-                            break;
-                    }
+                // 判断是否为空，为空则标记为空值
+                if (line[i + 1] == null) {
+                    builder.setNull(i);
+                    continue;
+                }
+                // 不为空，则根据数据类型添加值到tablet
+                switch (dataTypeList.get(i)) {
+                    case BOOLEAN:
+                        builder.setBoolean(i, Boolean.parseBoolean((String) line[i + 1]));
+                        break;
+                    case INT32:
+                        builder.setInt(i, Integer.parseInt((String) line[i + 1]));
+                        break;
+                    case INT64:
+                    case TIMESTAMP:
+                        builder.setLong(i, Long.parseLong((String) line[i + 1]));
+                        break;
+                    case FLOAT:
+                        builder.setFloat(i, Float.parseFloat((String) line[i + 1]));
+                        break;
+                    case DOUBLE:
+                        builder.setDouble(i, Double.parseDouble((String) line[i + 1]));
+                        break;
+                    case TEXT:
+                    case STRING:
+                        builder.setString(i, (String) line[i + 1]);
+                        break;
+                    case BLOB:
+                        builder.setBinary(i, new Binary((String) line[i + 1], Charset.defaultCharset()));
+                        break;
+                    case DATE:
+                        builder.setDate(i, LocalDate.parse((CharSequence) line[i + 1]));
+                        break;
                 }
             }
-            // 切换到下一行
-            rowIndex++;
         }
-        // 插入数据
-        session.insert(tablet);
+        // 插入数据，写入后归还 tablet
+        try {
+            session.insert(builder.build());
+        } finally {
+            pool.release(tablet);
+        }
 
         // 计算实际数据的行数
         try (SessionDataSet dataSet = session.executeQueryStatement("select * from insertNull")) {
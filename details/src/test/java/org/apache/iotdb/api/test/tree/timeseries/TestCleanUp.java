@@ -154,4 +154,15 @@ public class TestCleanUp extends BaseTestSuiteTreeModel {
         session.deleteTimeseries(device+".**");
         session.deleteDatabase(database);
     }
+    @Test(priority = 50)
+    public void insertDisordered() throws IoTDBConnectionException, StatementExecutionException, IOException {
+        // 乱序、迟到与重复时间戳写入后，去重的点数仍为 insertCount
+        session.createAlignedTimeseries(device, measurements, dataTypes, encodings, compressionTypes, null);
+        insertTabletMulti(device, schemaList, insertCount, true, disorderedTimestamps(0.05, 3600000L * 10, 0.01));
+        // 逐条写入校验开销大，只写少量点
+        session.createAlignedTimeseries(device + "_records", measurements, dataTypes, encodings, compressionTypes, null);
+        insertRecordMulti(device + "_records", measurements, dataTypes, disorderedTimestamps(0.2, 3600000L * 5, 0.05), 100, true);
+        session.deleteTimeseries(device+".**");
+        session.deleteDatabase(database);
+    }
 }